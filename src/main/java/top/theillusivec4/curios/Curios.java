@@ -39,6 +39,7 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.*;
 import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.fml.network.FMLPlayMessages;
 import top.theillusivec4.curios.api.CuriosAPI;
@@ -56,6 +57,8 @@ import top.theillusivec4.curios.common.capability.CapCurioItem;
 import top.theillusivec4.curios.common.event.EventHandlerCurios;
 import top.theillusivec4.curios.common.inventory.ContainerCurios;
 import top.theillusivec4.curios.common.inventory.CurioContainerHandler;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
+import top.theillusivec4.curios.common.network.CurioSyncScheduler;
 import top.theillusivec4.curios.common.network.NetworkHandler;
 
 import java.util.Map;
@@ -73,6 +76,7 @@ public class Curios {
         eventBus.addListener(this::enqueue);
         eventBus.addListener(this::process);
         MinecraftForge.EVENT_BUS.addListener(this::onServerStarting);
+        MinecraftForge.EVENT_BUS.addListener(this::onServerStopped);
         ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, CuriosConfig.commonSpec);
         ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, CuriosConfig.clientSpec);
     }
@@ -112,6 +116,11 @@ public class Curios {
         CommandCurios.register(evt.getCommandDispatcher());
     }
 
+    private void onServerStopped(FMLServerStoppedEvent evt) {
+        CurioSyncScheduler.clear();
+        CurioPacketLimiter.clear();
+    }
+
     @Mod.EventBusSubscriber(modid = MODID, value = Dist.CLIENT, bus = Mod.EventBusSubscriber.Bus.MOD)
     public static class ClientProxy {
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.api;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.item.Item;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.tags.Tag;
+import net.minecraft.util.ResourceLocation;
+import top.theillusivec4.curios.Curios;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index from items to their curio tags, built at once from the current item tags
+ * A new index is built and published whenever the item tags are reloaded, so that the client and server threads can
+ * read it at the same time without locking and never see a partially built index
+ */
+public final class CurioTagIndex {
+
+    private static volatile CurioTagIndex current = new CurioTagIndex(Integer.MIN_VALUE, ImmutableList.of(),
+            Collections.emptyMap(), Collections.emptyMap());
+
+    private final int generation;
+    /** The identifiers of all curio tags in sorted order, indexed by their bit in the item bitsets*/
+    private final List<String> identifiers;
+    private final Map<Item, BitSet> itemToBits;
+    /** The identifiers of each item's bitset, shared between all items with the same curio tags*/
+    private final Map<Item, ImmutableSet<String>> itemToTypes;
+
+    private CurioTagIndex(int generation, List<String> identifiers, Map<Item, BitSet> itemToBits,
+                          Map<Item, ImmutableSet<String>> itemToTypes) {
+        this.generation = generation;
+        this.identifiers = identifiers;
+        this.itemToBits = itemToBits;
+        this.itemToTypes = itemToTypes;
+    }
+
+    /**
+     * Rebuilds the index if the item tags have been reloaded since it was last built
+     * Called every tick so that the index is ready before it is needed, lookups also call this
+     */
+    public static void refresh() {
+        get();
+    }
+
+    static CurioTagIndex get() {
+        CurioTagIndex index = current;
+        int generation = ItemTags.getGeneration();
+
+        if (index.generation != generation) {
+            index = build(generation);
+            current = index;
+        }
+        return index;
+    }
+
+    ImmutableSet<String> getTags(Item item) {
+        ImmutableSet<String> tags = itemToTypes.get(item);
+        return tags != null ? tags : ImmutableSet.of();
+    }
+
+    boolean hasTag(Item item, String identifier) {
+        BitSet bits = itemToBits.get(item);
+
+        if (bits == null) {
+            return false;
+        }
+        int bit = Collections.binarySearch(identifiers, identifier);
+        return bit >= 0 && bits.get(bit);
+    }
+
+    private static CurioTagIndex build(int generation) {
+        Map<ResourceLocation, Tag<Item>> tagMap = ItemTags.getCollection().getTagMap();
+        List<String> identifiers = new ArrayList<>();
+
+        for (ResourceLocation location : tagMap.keySet()) {
+
+            if (location.getNamespace().equals(Curios.MODID)) {
+                identifiers.add(location.getPath());
+            }
+        }
+        Collections.sort(identifiers);
+        Map<Item, BitSet> itemToBits = new IdentityHashMap<>();
+
+        for (int i = 0; i < identifiers.size(); i++) {
+            Tag<Item> tag = tagMap.get(new ResourceLocation(Curios.MODID, identifiers.get(i)));
+
+            for (Item item : tag.getAllElements()) {
+                itemToBits.computeIfAbsent(item, key -> new BitSet()).set(i);
+            }
+        }
+        Map<BitSet, ImmutableSet<String>> sets = new HashMap<>();
+        Map<Item, ImmutableSet<String>> itemToTypes = new IdentityHashMap<>();
+
+        for (Map.Entry<Item, BitSet> entry : itemToBits.entrySet()) {
+            itemToTypes.put(entry.getKey(), sets.computeIfAbsent(entry.getValue(), bits -> {
+                ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    builder.add(identifiers.get(i));
+                }
+                return builder.build();
+            }));
+        }
+        return new CurioTagIndex(generation, ImmutableList.copyOf(identifiers),
+                Collections.unmodifiableMap(itemToBits), Collections.unmodifiableMap(itemToTypes));
+    }
+}
@@ -28,12 +28,15 @@ public class CurioType {
     private boolean isEnabled;
     /** Hidden slots will not show up in the default Curios GUI, but will still exist*/
     private boolean isHidden;
+    /** Compact network id assigned once all types are registered, or -1 before that*/
+    private int ordinal;
 
     public CurioType(String identifier) {
         this.identifier = identifier;
         this.size = 1;
         this.isEnabled = true;
         this.isHidden = false;
+        this.ordinal = -1;
     }
 
     public String getIdentifier() {
@@ -50,6 +53,11 @@ public class CurioType {
 
     public boolean isHidden() { return isHidden; }
 
+    /**
+     * @return  The compact id of this type used by sync packets, or -1 if types have not been processed yet
+     */
+    public int getOrdinal() { return ordinal; }
+
     public final CurioType defaultSize(int size) {
         this.size = Math.max(size, this.size);
         return this;
@@ -64,4 +72,8 @@ public class CurioType {
         this.isHidden = hide;
         return this;
     }
+
+    final void ordinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.api;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * An immutable view of every registered {@link CurioType}, frozen once IMC processing is finished
+ * The types of a snapshot must not be modified, changes are made with {@link CuriosRegistry#modifyType} which
+ * publishes a new snapshot with a higher version
+ */
+public final class CurioTypeSnapshot {
+
+    static final CurioTypeSnapshot EMPTY = new CurioTypeSnapshot(0, ImmutableList.of());
+
+    private final int version;
+    private final ImmutableMap<String, CurioType> types;
+    /** The identifiers of all types indexed by their ordinal, in sorted order*/
+    private final ImmutableList<String> identifiers;
+    private final ImmutableSortedSet<String> identifierSet;
+    private final CurioType[] byOrdinal;
+    private final int[] sizes;
+    private final boolean[] enabled;
+    private final boolean[] hidden;
+
+    /**
+     * @param version   The version of the registry
+     * @param types     The types of the snapshot, whose ordinals must match their position in identifier order
+     */
+    CurioTypeSnapshot(int version, Collection<CurioType> types) {
+        this.version = version;
+        ImmutableMap.Builder<String, CurioType> typeBuilder = ImmutableMap.builder();
+        CurioType[] byOrdinal = new CurioType[types.size()];
+
+        for (CurioType type : types) {
+            typeBuilder.put(type.getIdentifier(), type);
+            byOrdinal[type.getOrdinal()] = type;
+        }
+        this.types = typeBuilder.build();
+        this.byOrdinal = byOrdinal;
+        this.sizes = new int[byOrdinal.length];
+        this.enabled = new boolean[byOrdinal.length];
+        this.hidden = new boolean[byOrdinal.length];
+        ImmutableList.Builder<String> identifierBuilder = ImmutableList.builder();
+
+        for (int i = 0; i < byOrdinal.length; i++) {
+            CurioType type = byOrdinal[i];
+            identifierBuilder.add(type.getIdentifier());
+            this.sizes[i] = type.getSize();
+            this.enabled[i] = type.isEnabled();
+            this.hidden[i] = type.isHidden();
+        }
+        this.identifiers = identifierBuilder.build();
+        this.identifierSet = ImmutableSortedSet.copyOf(this.identifiers);
+    }
+
+    /**
+     * @return  A version that is increased every time the registry is frozen or modified
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return  The number of registered types, all ordinals are below this
+     */
+    public int size() {
+        return byOrdinal.length;
+    }
+
+    @Nullable
+    public CurioType getType(String identifier) {
+        return types.get(identifier);
+    }
+
+    @Nullable
+    public CurioType getType(int ordinal) {
+        return ordinal >= 0 && ordinal < byOrdinal.length ? byOrdinal[ordinal] : null;
+    }
+
+    /**
+     * @return  The identifiers of all types indexed by their ordinal
+     */
+    public ImmutableList<String> getIdentifiers() {
+        return identifiers;
+    }
+
+    /**
+     * @return  The identifiers of all types in sorted order
+     */
+    public ImmutableSortedSet<String> getIdentifierSet() {
+        return identifierSet;
+    }
+
+    public int getDefaultSize(int ordinal) {
+        return sizes[ordinal];
+    }
+
+    public boolean isEnabledByDefault(int ordinal) {
+        return enabled[ordinal];
+    }
+
+    public boolean isHiddenByDefault(int ordinal) {
+        return hidden[ordinal];
+    }
+}
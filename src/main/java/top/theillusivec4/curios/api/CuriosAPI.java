@@ -19,39 +19,67 @@
 
 package top.theillusivec4.curios.api;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
 import io.netty.util.internal.ConcurrentSet;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.tags.ItemTags;
-import net.minecraft.tags.Tag;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.util.LazyOptional;
-import top.theillusivec4.curios.Curios;
 import top.theillusivec4.curios.api.capability.CuriosCapability;
 import top.theillusivec4.curios.api.capability.ICurio;
 import top.theillusivec4.curios.api.capability.ICurioItemHandler;
-import top.theillusivec4.curios.api.inventory.CurioStackHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class CuriosAPI {
 
     /**
+     * Curios registered to the item with {@link CuriosAPI#registerCurio(Item, ICurio)} are returned before checking the
+     * capability of the ItemStack
      * @param stack The ItemStack to get the curio capability from
      * @return  LazyOptional of the curio capability attached to the ItemStack
      */
     public static LazyOptional<ICurio> getCurio(ItemStack stack) {
-        return stack.getCapability(CuriosCapability.ITEM);
+        LazyOptional<ICurio> curio = CuriosRegistry.itemToCurio.get(stack.getItem());
+        return curio != null ? curio : stack.getCapability(CuriosCapability.ITEM);
+    }
+
+    /**
+     * Registers a single curio for every ItemStack of the item, so that no capability has to be attached to each
+     * ItemStack. The curio is shared by all ItemStacks and must not keep any state of a particular ItemStack.
+     * As the curio has no ItemStack of its own, {@link ICurio#getSyncTag()} and {@link ICurio#readSyncTag} are never
+     * called for it. Any data that needs to be synced must be kept in the ItemStack's tag instead.
+     * @param item  The item
+     * @param curio The curio shared by all ItemStacks of the item
+     */
+    public static void registerCurio(Item item, ICurio curio) {
+        CuriosRegistry.itemToCurio.put(item, LazyOptional.of(() -> curio));
+    }
+
+    /**
+     * @param item  The item
+     * @return  LazyOptional of the shared curio registered for the item with
+     * {@link CuriosAPI#registerCurio(Item, ICurio)}, the same instance for every call, or an empty LazyOptional
+     */
+    public static LazyOptional<ICurio> getSharedCurio(Item item) {
+        LazyOptional<ICurio> curio = CuriosRegistry.itemToCurio.get(item);
+        return curio != null ? curio : LazyOptional.empty();
+    }
+
+    /**
+     * @param item  The item
+     * @return  True if a shared curio was registered for the item with {@link CuriosAPI#registerCurio(Item, ICurio)}
+     */
+    public static boolean isSharedCurio(Item item) {
+        return CuriosRegistry.itemToCurio.containsKey(item);
     }
 
     /**
@@ -68,16 +96,17 @@ public class CuriosAPI {
      */
     @Nullable
     public static CurioType getType(String identifier) {
-        return CuriosRegistry.idToType.get(identifier);
+        return CuriosRegistry.snapshot.getType(identifier);
     }
 
     /**
      * @return  An unmodifiable list of all unique registered identifiers
      */
-    public static ImmutableSet<String> getTypeIdentifiers() { return ImmutableSet.copyOf(CuriosRegistry.idToType.keySet()); }
+    public static ImmutableSet<String> getTypeIdentifiers() { return CuriosRegistry.snapshot.getIdentifierSet(); }
 
     /**
      * Gets the first found ItemStack of the item type equipped in a curio slot, or null if no matches were found.
+     * Only slots of the types the item is tagged for are searched.
      * @param item              The item to find
      * @param entityLivingBase  The wearer of the item to be found
      * @return  An instance of {@link FinderData} indicating the identifier of the curio slot, slot index, and the ItemStack
@@ -85,31 +114,35 @@ public class CuriosAPI {
      */
     @Nullable
     public static FinderData getCurioEquipped(Item item, @Nonnull final EntityLivingBase entityLivingBase) {
-        FinderData found = getCuriosHandler(entityLivingBase).map(handler -> {
-            Set<String> tags = getCurioTags(item);
-
-            for (String id : tags) {
-                CurioStackHandler stackHandler = handler.getStackHandler(id);
-
-                if (stackHandler != null) {
-
-                    for (int i = 0; i < stackHandler.getSlots(); i++) {
-                        ItemStack stack = stackHandler.getStackInSlot(i);
-
-                        if (!stack.isEmpty() && item == stack.getItem()) {
-                            return new FinderData(id, i, stack);
-                        }
-                    }
-                }
-            }
-            return new FinderData("", 0, ItemStack.EMPTY);
-        }).orElse(new FinderData("", 0, ItemStack.EMPTY));
+        ICurioItemHandler handler = getCuriosHandler(entityLivingBase).orElse(null);
 
-        if (!found.getIdentifier().isEmpty()) {
-            return found;
-        } else {
+        if (handler == null) {
             return null;
         }
+        Set<String> tags = getCurioTags(item);
+        return tags.isEmpty() ? null : handler.findFirst(item, tags);
+    }
+
+    /**
+     * Gets every ItemStack of the item type equipped in a curio slot
+     * @param item              The item to find
+     * @param entityLivingBase  The wearer of the items to be found
+     * @return  A list of {@link FinderData} for every found ItemStack, in identifier and slot order. Empty if no matches
+     * were found.
+     */
+    public static List<FinderData> getAllCuriosEquipped(Item item, @Nonnull final EntityLivingBase entityLivingBase) {
+        ICurioItemHandler handler = getCuriosHandler(entityLivingBase).orElse(null);
+        return handler != null ? handler.findAll(item) : ImmutableList.of();
+    }
+
+    /**
+     * @param item              The item to find
+     * @param entityLivingBase  The possible wearer of the item
+     * @return  True if the item is equipped in any curio slot
+     */
+    public static boolean isCurioEquipped(Item item, @Nonnull final EntityLivingBase entityLivingBase) {
+        ICurioItemHandler handler = getCuriosHandler(entityLivingBase).orElse(null);
+        return handler != null && handler.isEquipped(item);
     }
 
     /**
@@ -122,30 +155,16 @@ public class CuriosAPI {
      */
     @Nullable
     public static FinderData getCurioEquipped(Predicate<ItemStack> filter, @Nonnull final EntityLivingBase entityLivingBase) {
-        FinderData found = getCuriosHandler(entityLivingBase).map(handler -> {
-
-            for (String id : handler.getCurioMap().keySet()) {
-                CurioStackHandler stackHandler = handler.getStackHandler(id);
+        FinderData[] found = new FinderData[1];
+        getCuriosHandler(entityLivingBase).ifPresent(handler -> handler.forEachOccupied((id, stackHandler, index, stack) -> {
 
-                if (stackHandler != null) {
-
-                    for (int i = 0; i < stackHandler.getSlots(); i++) {
-                        ItemStack stack = stackHandler.getStackInSlot(i);
-
-                        if (!stack.isEmpty() && filter.test(stack)) {
-                            return new FinderData(id, i, stack);
-                        }
-                    }
-                }
+            if (filter.test(stack)) {
+                found[0] = new FinderData(id, index, stack);
+                return true;
             }
-            return new FinderData("", 0, ItemStack.EMPTY);
-        }).orElse(new FinderData("", 0, ItemStack.EMPTY));
-
-        if (!found.getIdentifier().isEmpty()) {
-            return found;
-        } else {
-            return null;
-        }
+            return false;
+        }));
+        return found[0];
     }
 
     /**
@@ -212,38 +231,23 @@ public class CuriosAPI {
         getCuriosHandler(entityLivingBase).ifPresent(handler -> handler.disableCurio(id));
     }
 
-    private static Map<Item, Set<String>> itemToTypes = new HashMap<>();
-    private static Map<String, Tag<Item>> idToTag = new HashMap<>();
-
     /**
      * Retrieves a set of string identifiers from the curio tags associated with the given item
+     * The index is rebuilt whenever the item tags are reloaded and can be read from any thread
      * @param item  The item to retrieve curio tags for
-     * @return      Unmodifiable list of unique curio identifiers associated with the item
+     * @return      Unmodifiable list of unique curio identifiers associated with the item, shared between calls
      */
     public static ImmutableSet<String> getCurioTags(Item item) {
+        return CurioTagIndex.get().getTags(item);
+    }
 
-        if (idToTag.isEmpty()) {
-            idToTag = ItemTags.getCollection().getTagMap().entrySet()
-                    .stream()
-                    .filter(map -> map.getKey().getNamespace().equals(Curios.MODID))
-                    .collect(Collectors.toMap(entry -> entry.getKey().getPath(), Map.Entry::getValue));
-            itemToTypes.clear();
-        }
-
-        if (itemToTypes.containsKey(item)) {
-            return ImmutableSet.copyOf(itemToTypes.get(item));
-        } else {
-            Set<String> tags = Sets.newHashSet();
-
-            for (String identifier : idToTag.keySet()) {
-
-                if (idToTag.get(identifier).contains(item)) {
-                    tags.add(identifier);
-                }
-            }
-            itemToTypes.put(item, tags);
-            return ImmutableSet.copyOf(tags);
-        }
+    /**
+     * @param item          The item to check
+     * @param identifier    The identifier of the curio tag
+     * @return  True if the item is in the curio tag with the identifier
+     */
+    public static boolean hasCurioTag(Item item, String identifier) {
+        return CurioTagIndex.get().hasTag(item, identifier);
     }
 
     /**
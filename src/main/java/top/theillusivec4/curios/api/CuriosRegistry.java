@@ -20,8 +20,11 @@
 package top.theillusivec4.curios.api;
 
 import io.netty.util.internal.ConcurrentSet;
+import net.minecraft.item.Item;
 import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.fml.InterModComms;
+import top.theillusivec4.curios.api.capability.ICurio;
 import top.theillusivec4.curios.api.imc.CurioIMCMessage;
 
 import java.util.*;
@@ -31,7 +34,10 @@ import java.util.stream.Stream;
 
 public class CuriosRegistry {
 
+    /** Types being registered during IMC processing, only used before the registry is frozen*/
     static Map<String, CurioType> idToType = new HashMap<>();
+    static volatile CurioTypeSnapshot snapshot = CurioTypeSnapshot.EMPTY;
+    static ConcurrentMap<Item, LazyOptional<ICurio>> itemToCurio = new ConcurrentHashMap<>();
     static ConcurrentMap<String, ConcurrentSet<ResourceLocation>> iconQueues = new ConcurrentHashMap<>();
     static Map<String, ResourceLocation> icons = new HashMap<>();
 
@@ -39,12 +45,67 @@ public class CuriosRegistry {
         register
                 .filter(msg -> msg.getMessageSupplier().get() instanceof CurioIMCMessage)
                 .map(msg -> (CurioIMCMessage) msg.getMessageSupplier().get())
-                .forEach(msg -> processType(msg, true));
+                .forEach(msg -> processType(idToType, msg, true));
 
         modify
                 .filter(msg -> msg.getMessageSupplier().get() instanceof CurioIMCMessage)
                 .map(msg -> (CurioIMCMessage) msg.getMessageSupplier().get())
-                .forEach(msg -> processType(msg, false));
+                .forEach(msg -> processType(idToType, msg, false));
+        freeze(idToType);
+        idToType = new HashMap<>();
+    }
+
+    /**
+     * @return  The current frozen registry, which is empty until IMC processing is finished
+     */
+    public static CurioTypeSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return  The identifiers of all registered types indexed by their ordinal
+     */
+    public static List<String> getOrdinalTable() {
+        return snapshot.getIdentifiers();
+    }
+
+    /**
+     * Modifies an already registered type after the registry has been frozen, with the same rules as a
+     * {@link CuriosAPI.IMC#MODIFY_TYPE} message, and publishes a new snapshot with a higher version
+     * Types can not be added this way, as their ordinals are already known to connected clients
+     * Slots that entities already have are not changed
+     * @param message   The changes to the type
+     * @return  The version of the new snapshot, or the current version if there is no such type
+     */
+    public static synchronized int modifyType(CurioIMCMessage message) {
+        CurioTypeSnapshot current = snapshot;
+
+        if (current.getType(message.getIdentifier()) == null) {
+            return current.getVersion();
+        }
+        Map<String, CurioType> types = new HashMap<>();
+
+        for (String identifier : current.getIdentifiers()) {
+            CurioType type = current.getType(identifier);
+            types.put(identifier, new CurioType(identifier).defaultSize(type.getSize()).enabled(type.isEnabled())
+                    .hide(type.isHidden()));
+        }
+        processType(types, message, false);
+        freeze(types);
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Assigns ordinals to the types in identifier order and publishes them as a new snapshot
+     */
+    private static synchronized void freeze(Map<String, CurioType> types) {
+        List<String> identifiers = new ArrayList<>(types.keySet());
+        Collections.sort(identifiers);
+
+        for (int i = 0; i < identifiers.size(); i++) {
+            types.get(identifiers.get(i)).ordinal(i);
+        }
+        snapshot = new CurioTypeSnapshot(snapshot.getVersion() + 1, types.values());
     }
 
     public static void processIcons() {
@@ -62,7 +123,7 @@ public class CuriosRegistry {
         });
     }
 
-    private static void processType(CurioIMCMessage message, boolean create) {
+    private static void processType(Map<String, CurioType> idToType, CurioIMCMessage message, boolean create) {
         String identifier = message.getIdentifier();
 
         if (idToType.containsKey(identifier)) {
@@ -40,12 +40,33 @@ import javax.annotation.Nonnull;
 public interface ICurio {
 
     /**
-     * Called every tick while the ItemStack is equipped
+     * Tick rate for curios that should never be ticked
+     */
+    int TICK_NEVER = 0;
+
+    /**
+     * Tick rate for curios that should only be ticked when the ItemStack in their slot changes
+     */
+    int TICK_ON_CHANGE = -1;
+
+    /**
+     * Called while the ItemStack is equipped, as often as determined by {@link ICurio#getTickRate(String, EntityLivingBase)}
      * @param identifier        The {@link CurioType} identifier of the ItemStack's slot
      * @param entityLivingBase  The wearer of the ItemStack
      */
     default void onCurioTick(String identifier, EntityLivingBase entityLivingBase) {}
 
+    /**
+     * Determines how often {@link ICurio#onCurioTick(String, EntityLivingBase)} and the ItemStack's inventory tick are
+     * called while the ItemStack is equipped
+     * This is checked whenever the ItemStack in the slot changes, so the result should not depend on anything else
+     * @param identifier        The {@link CurioType} identifier of the ItemStack's slot
+     * @param entityLivingBase  The wearer of the ItemStack
+     * @return  A positive number of ticks between each tick, {@link ICurio#TICK_ON_CHANGE} to only tick when the
+     * ItemStack in the slot changes, or {@link ICurio#TICK_NEVER} to never tick
+     */
+    default int getTickRate(String identifier, EntityLivingBase entityLivingBase) { return 1; }
+
     /**
      * Called when the ItemStack is equipped into a slot
      * @param identifier        The {@link CurioType} identifier of the slot being equipped into
@@ -108,7 +129,7 @@ public interface ICurio {
     /**
      * Compares the current ItemStack and the previous ItemStack in the slot to detect any changes and returns true if
      * the change should be synced to all tracking clients.
-     * Note that this check occurs every tick so implementations need to code their own timers for other intervals.
+     * Note that this check occurs whenever a change in the slot is detected, regardless of the tick rate.
      * @param identifier        The identifier of the {@link CurioType} of the slot
      * @param entityLivingBase  The EntityLivingBase that is wearing the ItemStack
      * @return  True to curios the ItemStack change to all tracking clients, false to do nothing
@@ -117,6 +138,18 @@ public interface ICurio {
         return false;
     }
 
+    /**
+     * Determines if a change to the ItemStack should be synced right away, even if the slot was synced recently
+     * Other changes are held and only the latest state is synced once the sync interval of the slot allows it
+     * Note that changes to the item in the slot are always synced right away.
+     * @param identifier        The identifier of the {@link CurioType} of the slot
+     * @param entityLivingBase  The EntityLivingBase that is wearing the ItemStack
+     * @return  True to sync the change right away, false to follow the sync interval
+     */
+    default boolean isSyncUrgent(String identifier, EntityLivingBase entityLivingBase) {
+        return false;
+    }
+
     /**
      * Gets a tag that is used to sync extra curio data from the server to the client
      * Only used when {@link ICurio#shouldSyncToTracking(String, EntityLivingBase)} returns true
@@ -19,14 +19,22 @@
 
 package top.theillusivec4.curios.api.capability;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import top.theillusivec4.curios.api.CurioType;
+import top.theillusivec4.curios.api.CuriosAPI.FinderData;
+import top.theillusivec4.curios.api.CuriosRegistry;
 import top.theillusivec4.curios.api.inventory.CurioStackHandler;
 
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.function.BiConsumer;
 
 public interface ICurioItemHandler {
 
@@ -42,6 +50,128 @@ public interface ICurioItemHandler {
      */
     void setCurioMap(SortedMap<String, CurioStackHandler> map);
 
+    /**
+     * Visits the handler of every current {@link CurioType} in identifier order, without creating maps or iterators
+     * @param visitor   The visitor, given the identifier and the handler of each type
+     */
+    default void forEachType(BiConsumer<String, CurioStackHandler> visitor) {
+
+        for (Map.Entry<String, CurioStackHandler> entry : getCurioMap().entrySet()) {
+            visitor.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Visits every slot of the current curios in identifier and slot order, including empty slots
+     * @param visitor   The visitor, which can stop the visit by returning true
+     * @return  True if the visitor stopped the visit, false if every slot was visited
+     */
+    default boolean forEachSlot(SlotVisitor visitor) {
+
+        for (Map.Entry<String, CurioStackHandler> entry : getCurioMap().entrySet()) {
+            CurioStackHandler stackHandler = entry.getValue();
+
+            for (int i = 0; i < stackHandler.getSlots(); i++) {
+
+                if (visitor.visit(entry.getKey(), stackHandler, i, stackHandler.getStackInSlot(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits every slot of the current curios that is not empty, in identifier and slot order
+     * @param visitor   The visitor, which can stop the visit by returning true
+     * @return  True if the visitor stopped the visit, false if every occupied slot was visited
+     */
+    default boolean forEachOccupied(SlotVisitor visitor) {
+        return forEachSlot((identifier, stackHandler, index, stack) -> !stack.isEmpty()
+                && visitor.visit(identifier, stackHandler, index, stack));
+    }
+
+    /**
+     * @param item  The item to find
+     * @return  The first occupied slot holding the item, in identifier and slot order, or null if there is none
+     */
+    @Nullable
+    default FinderData findFirst(Item item) {
+        FinderData[] found = new FinderData[1];
+        forEachOccupied((identifier, stackHandler, index, stack) -> {
+
+            if (stack.getItem() == item) {
+                found[0] = new FinderData(identifier, index, stack);
+                return true;
+            }
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * @param item          The item to find
+     * @param identifiers   The identifiers of the slot types to search
+     * @return  The first occupied slot of the given types holding the item, in identifier and slot order, or null if
+     * there is none
+     */
+    @Nullable
+    default FinderData findFirst(Item item, Set<String> identifiers) {
+        FinderData[] found = new FinderData[1];
+        forEachOccupied((identifier, stackHandler, index, stack) -> {
+
+            if (stack.getItem() == item && identifiers.contains(identifier)) {
+                found[0] = new FinderData(identifier, index, stack);
+                return true;
+            }
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * @param item  The item to find
+     * @return  Every occupied slot holding the item, in identifier and slot order
+     */
+    default List<FinderData> findAll(Item item) {
+        ImmutableList.Builder<FinderData> found = ImmutableList.builder();
+        forEachOccupied((identifier, stackHandler, index, stack) -> {
+
+            if (stack.getItem() == item) {
+                found.add(new FinderData(identifier, index, stack));
+            }
+            return false;
+        });
+        return found.build();
+    }
+
+    /**
+     * @param item  The item to find
+     * @return  True if the item is in any curio slot
+     */
+    default boolean isEquipped(Item item) {
+        return findFirst(item) != null;
+    }
+
+    /**
+     * The version of handlers that do not keep versions, which clients never treat as current
+     */
+    int UNVERSIONED = 0;
+
+    /**
+     * A version that is changed every time the contents, sizes or active types of this handler are changed
+     * Versions are never reused during a session, so clients can use them to check if a cached copy is current
+     * @return  The current version of this handler, or {@link #UNVERSIONED} if this handler does not keep versions
+     */
+    default int getVersion() {
+        return UNVERSIONED;
+    }
+
+    /**
+     * Moves this handler to a new version, called whenever a change is synced to clients
+     */
+    default void markChanged() {}
+
     /**
      * @return The number of slots across all {@link CurioType} identifiers
      */
@@ -53,6 +183,17 @@ public interface ICurioItemHandler {
      */
     CurioStackHandler getStackHandler(String identifier);
 
+    /**
+     * Looks up a {@link CurioStackHandler} without comparing identifiers, for callers that resolved the type once
+     * @param ordinal   The ordinal of the {@link CurioType}, from {@link CurioType#getOrdinal()}
+     * @return The {@link CurioStackHandler} associated with the given {@link CurioType} ordinal, or null if there is none
+     */
+    @Nullable
+    default CurioStackHandler getStackHandler(int ordinal) {
+        List<String> identifiers = CuriosRegistry.getOrdinalTable();
+        return ordinal >= 0 && ordinal < identifiers.size() ? getStackHandler(identifiers.get(ordinal)) : null;
+    }
+
     /**
      * @param identifier    The identifier for the {@link CurioType}
      * @param slot          The slot index of the {@link CurioStackHandler} for the given identifier
@@ -134,4 +275,17 @@ public interface ICurioItemHandler {
      * Used internally for dropping items found in disabling/removing slots or giving them back to players
      */
     void dropInvalidCache();
+
+    @FunctionalInterface
+    interface SlotVisitor {
+
+        /**
+         * @param identifier    The identifier of the {@link CurioType} of the slot
+         * @param stackHandler  The handler of the slot, which can be used to change the ItemStack in the slot
+         * @param index         The slot index in the handler
+         * @param stack         The ItemStack in the slot
+         * @return  True to stop visiting slots, false to continue
+         */
+        boolean visit(String identifier, CurioStackHandler stackHandler, int index, ItemStack stack);
+    }
 }
@@ -29,7 +29,7 @@ import javax.annotation.Nonnull;
 
 /**
  * {@link LivingCurioChangeEvent} is fired when the Curio of an EntityLivingBase changes. <br>
- * This event is fired whenever changes in curios are detected in {@link net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent}. <br>
+ * This event is fired whenever changes in curios are detected during the server world tick. <br>
  * This also includes entities joining the World, as well as being cloned. <br>
  * This event is fired on server-side only. <br>
  * <br>
@@ -19,18 +19,41 @@
 
 package top.theillusivec4.curios.api.inventory;
 
+import com.google.common.collect.Multimap;
+import net.minecraft.entity.ai.attributes.AttributeModifier;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.NonNullList;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.items.ItemStackHandler;
+import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.capability.ICurio;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 
 public final class CurioStackHandler extends ItemStackHandler {
 
     protected NonNullList<ItemStack> previousStacks;
     protected boolean isHidden = false;
+    /** Slots that have changed since they were last processed by the curio tick*/
+    protected BitSet dirtySlots = new BitSet();
+    /** Incremented every time a slot is marked as changed*/
+    protected int generation = 0;
+    /** Called every time the generation is incremented, used by the curio inventory to keep its own generation*/
+    @Nullable
+    protected Runnable generationListener;
+    /** The resolved curio of each slot, or null if it is not a curio, valid while the slot holds the cached ItemStack*/
+    protected ICurio[] curios = new ICurio[0];
+    protected ItemStack[] curioStacks = new ItemStack[0];
+    protected ICurio[] previousCurios = new ICurio[0];
+    protected ItemStack[] previousCurioStacks = new ItemStack[0];
+    /** The attribute modifiers applied to the wearer for each slot by the curio tick*/
+    protected List<Multimap<String, AttributeModifier>> appliedModifiers = new ArrayList<>();
 
     public CurioStackHandler()
     {
@@ -48,6 +71,7 @@ public final class CurioStackHandler extends ItemStackHandler {
         for (int i = 0; i < stacks.size(); i++) {
             previousStacks.add(ItemStack.EMPTY);
         }
+        this.markAllDirty();
     }
 
     @Override
@@ -59,12 +83,166 @@ public final class CurioStackHandler extends ItemStackHandler {
             this.stacks.add(ItemStack.EMPTY);
             this.previousStacks.add(ItemStack.EMPTY);
         }
+        this.markAllDirty();
+    }
+
+    @Override
+    protected void onContentsChanged(int slot) {
+        this.markDirty(slot);
+    }
+
+    /**
+     * Flags the slot as changed so that it will be processed on the next curio tick
+     * @param slot  The slot index
+     */
+    public void markDirty(int slot) {
+        this.dirtySlots.set(slot);
+        this.nextGeneration();
+    }
+
+    /**
+     * Flags every slot as changed so that they will all be processed on the next curio tick
+     */
+    public void markAllDirty() {
+        this.dirtySlots.set(0, this.stacks.size());
+        this.nextGeneration();
+    }
+
+    public void clearDirty(int slot) {
+        this.dirtySlots.clear(slot);
+    }
+
+    public boolean isDirty(int slot) {
+        return this.dirtySlots.get(slot);
+    }
+
+    public boolean hasDirtySlots() {
+        return !this.dirtySlots.isEmpty();
+    }
+
+    /**
+     * @param fromIndex The slot index to start searching from, inclusive
+     * @return  The index of the next slot flagged as changed, or -1 if there are none
+     */
+    public int nextDirtySlot(int fromIndex) {
+        int slot = this.dirtySlots.nextSetBit(fromIndex);
+        return slot < this.stacks.size() ? slot : -1;
+    }
+
+    /**
+     * @return  A counter that is incremented whenever any slot in this handler is flagged as changed
+     */
+    public int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * @param listener  Called whenever the generation of this handler is incremented, or null to remove the listener
+     */
+    public void setGenerationListener(@Nullable Runnable listener) {
+        this.generationListener = listener;
+    }
+
+    private void nextGeneration() {
+        this.generation++;
+
+        if (this.generationListener != null) {
+            this.generationListener.run();
+        }
+    }
+
+    /**
+     * Flags slots whose ItemStack was modified in place, without going through this handler, since it was last
+     * processed. The shallow check only looks at the item, count, damage and presence of a tag. The deep check also
+     * compares the full tags and is meant to be run periodically to catch any remaining changes.
+     * @param deep  True to compare the full ItemStacks, false to use the shallow check
+     */
+    public void detectMutations(boolean deep) {
+        int size = Math.min(this.stacks.size(), this.previousStacks.size());
+
+        for (int i = 0; i < size; i++) {
+
+            if (!this.dirtySlots.get(i)) {
+                ItemStack stack = this.stacks.get(i);
+                ItemStack prevStack = this.previousStacks.get(i);
+
+                if (stack.isEmpty() && prevStack.isEmpty()) {
+                    continue;
+                }
+
+                if (stack.getItem() != prevStack.getItem() || stack.getCount() != prevStack.getCount()
+                        || stack.hasTag() != prevStack.hasTag() || stack.getDamage() != prevStack.getDamage()
+                        || (deep && !ItemStack.areItemStacksEqual(stack, prevStack))) {
+                    this.markDirty(i);
+                }
+            }
+        }
     }
 
     public void setPreviousStackInSlot(int slot, @Nonnull ItemStack stack) {
         validateSlotIndex(slot);
         this.previousStacks.set(slot, stack);
-        onContentsChanged(slot);
+    }
+
+    /**
+     * Resolves the curio capability of the ItemStack in the slot only when a different ItemStack is put in the slot
+     * @param slot  The slot index
+     * @return  The curio of the ItemStack in the slot, or null if the slot is empty or does not hold a curio
+     */
+    @Nullable
+    public ICurio getCurio(int slot) {
+        validateSlotIndex(slot);
+        ItemStack stack = this.stacks.get(slot);
+
+        if (stack.isEmpty()) {
+            return null;
+        }
+
+        if (slot >= this.curioStacks.length) {
+            this.curios = Arrays.copyOf(this.curios, this.stacks.size());
+            this.curioStacks = Arrays.copyOf(this.curioStacks, this.stacks.size());
+        }
+
+        if (this.curioStacks[slot] != stack) {
+            this.curioStacks[slot] = stack;
+            this.curios[slot] = CuriosAPI.getCurio(stack).orElse(null);
+        }
+        return this.curios[slot];
+    }
+
+    /**
+     * @param slot  The slot index
+     * @return  The curio of the previous ItemStack in the slot, or null if it is empty or not a curio
+     */
+    @Nullable
+    public ICurio getPreviousCurio(int slot) {
+        validateSlotIndex(slot);
+        ItemStack stack = this.previousStacks.get(slot);
+
+        if (stack.isEmpty()) {
+            return null;
+        }
+
+        if (slot >= this.previousCurioStacks.length) {
+            this.previousCurios = Arrays.copyOf(this.previousCurios, this.previousStacks.size());
+            this.previousCurioStacks = Arrays.copyOf(this.previousCurioStacks, this.previousStacks.size());
+        }
+
+        if (this.previousCurioStacks[slot] != stack) {
+            this.previousCurioStacks[slot] = stack;
+            this.previousCurios[slot] = CuriosAPI.getCurio(stack).orElse(null);
+        }
+        return this.previousCurios[slot];
+    }
+
+    /**
+     * The attribute modifiers that the curio tick has applied to the wearer for each slot, kept with the previous
+     * ItemStacks so that they can be removed by any later tick of the wearer
+     * Can be longer than the number of slots after slots are removed, until the curio tick has removed their modifiers
+     * @return  The mutable list of applied modifiers, by slot index
+     */
+    public List<Multimap<String, AttributeModifier>> getAppliedModifiers() {
+        return this.appliedModifiers;
     }
 
     public int getPreviousSlots() {
@@ -83,10 +261,14 @@ public final class CurioStackHandler extends ItemStackHandler {
             throw new IllegalArgumentException("Amount cannot be negative!");
         }
 
+        int oldSize = this.stacks.size();
+
         for (int i = 0; i < amount; i++) {
             this.stacks.add(ItemStack.EMPTY);
             this.previousStacks.add(ItemStack.EMPTY);
         }
+        this.dirtySlots.set(oldSize, this.stacks.size());
+        this.nextGeneration();
     }
 
     public void removeSize(int amount) {
@@ -103,6 +285,9 @@ public final class CurioStackHandler extends ItemStackHandler {
         while (this.previousStacks.size() > targetSize) {
             this.previousStacks.remove(this.previousStacks.size() - 1);
         }
+        int clearFrom = Math.max(0, targetSize);
+        this.dirtySlots.clear(clearFrom, Math.max(clearFrom, this.dirtySlots.length()));
+        this.nextGeneration();
     }
 
     public boolean isHidden() {
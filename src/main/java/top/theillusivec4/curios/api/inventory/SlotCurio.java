@@ -22,6 +22,7 @@ package top.theillusivec4.curios.api.inventory;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.api.distmarker.Dist;
@@ -29,24 +30,57 @@ import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.items.SlotItemHandler;
 import top.theillusivec4.curios.Curios;
 import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.capability.ICurio;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Set;
 
+/**
+ * A curio slot that can be rebound to another slot of any {@link CurioStackHandler}, so that a container can show a
+ * scrolling view of many curio slots with a fixed number of slot objects
+ * A slot that is not bound to any handler is disabled and holds nothing
+ */
 public class SlotCurio extends SlotItemHandler {
 
-    private final String identifier;
     private final EntityPlayer player;
+    private String identifier;
+    private CurioStackHandler stackHandler;
+    private int index;
 
     public SlotCurio(EntityPlayer player, CurioStackHandler handler, int index, String identifier, int xPosition, int yPosition) {
         super(handler, index, xPosition, yPosition);
-        this.identifier = identifier;
         this.player = player;
+        this.rebind(handler, index, identifier);
+    }
+
+    /**
+     * Binds this slot to a slot of a {@link CurioStackHandler}
+     * @param handler       The handler to bind to, or null to disable this slot
+     * @param index         The slot index in the handler
+     * @param identifier    The identifier of the {@link top.theillusivec4.curios.api.CurioType} of the handler
+     */
+    public void rebind(@Nullable CurioStackHandler handler, int index, @Nullable String identifier) {
+        this.stackHandler = handler;
+        this.index = index;
+        this.identifier = identifier;
+    }
+
+    public boolean isBound() {
+        return this.stackHandler != null;
+    }
+
+    @Nullable
+    public String getIdentifier() {
+        return this.identifier;
     }
 
     @OnlyIn(Dist.CLIENT)
     public String getSlotName() {
+
+        if (identifier == null) {
+            return "";
+        }
         String key = "curios.identifier." + identifier;
         if (!I18n.hasKey(key)) {
             return identifier.substring(0, 1).toUpperCase() + identifier.substring(1);
@@ -54,11 +88,74 @@ public class SlotCurio extends SlotItemHandler {
         return I18n.format(key);
     }
 
+    @OnlyIn(Dist.CLIENT)
+    @Override
+    public boolean isEnabled() {
+        return this.isBound();
+    }
+
+    @Override
+    public int getSlotIndex() {
+        return this.index;
+    }
+
+    @Override
+    public CurioStackHandler getItemHandler() {
+        return this.stackHandler;
+    }
+
+    @Override
+    public boolean isSameInventory(Slot other) {
+        return other instanceof SlotItemHandler && ((SlotItemHandler) other).getItemHandler() == this.stackHandler;
+    }
+
+    @Nonnull
+    @Override
+    public ItemStack getStack() {
+        return this.isBound() ? this.stackHandler.getStackInSlot(index) : ItemStack.EMPTY;
+    }
+
+    @Override
+    public void putStack(@Nonnull ItemStack stack) {
+
+        if (this.isBound()) {
+            this.stackHandler.setStackInSlot(index, stack);
+            this.onSlotChanged();
+        }
+    }
+
+    @Override
+    public int getSlotStackLimit() {
+        return this.isBound() ? this.stackHandler.getSlotLimit(index) : 0;
+    }
+
+    @Override
+    public int getItemStackLimit(@Nonnull ItemStack stack) {
+
+        if (!this.isBound()) {
+            return 0;
+        }
+        ItemStack maxAdd = stack.copy();
+        int maxInput = stack.getMaxStackSize();
+        maxAdd.setCount(maxInput);
+        ItemStack currentStack = this.stackHandler.getStackInSlot(index);
+        this.stackHandler.setStackInSlot(index, ItemStack.EMPTY);
+        ItemStack remainder = this.stackHandler.insertItem(index, maxAdd, true);
+        this.stackHandler.setStackInSlot(index, currentStack);
+        return maxInput - remainder.getCount();
+    }
+
+    @Nonnull
+    @Override
+    public ItemStack decrStackSize(int amount) {
+        return this.isBound() ? this.stackHandler.extractItem(index, amount, false) : ItemStack.EMPTY;
+    }
+
     @Override
     public boolean isItemValid(@Nonnull ItemStack stack) {
-        return hasValidTag(CuriosAPI.getCurioTags(stack.getItem())) && CuriosAPI.getCurio(stack)
-                .map(curio -> curio.canEquip(identifier, player)).orElse(true)
-                && super.isItemValid(stack);
+        return this.isBound() && !stack.isEmpty() && hasValidTag(CuriosAPI.getCurioTags(stack.getItem()))
+                && CuriosAPI.getCurio(stack).map(curio -> curio.canEquip(identifier, player)).orElse(true)
+                && this.stackHandler.isItemValid(index, stack);
     }
 
     protected boolean hasValidTag(Set<String> tags) {
@@ -67,10 +164,15 @@ public class SlotCurio extends SlotItemHandler {
 
     @Override
     public boolean canTakeStack(EntityPlayer playerIn) {
+
+        if (!this.isBound()) {
+            return false;
+        }
         ItemStack stack = this.getStack();
+        ICurio curio = this.stackHandler.getCurio(index);
         return (stack.isEmpty() || playerIn.isCreative() || !EnchantmentHelper.hasBindingCurse(stack))
-                && CuriosAPI.getCurio(stack).map(curio -> curio.canUnequip(identifier, playerIn)).orElse(true)
-                && super.canTakeStack(playerIn);
+                && (curio == null || curio.canUnequip(identifier, playerIn))
+                && !this.stackHandler.extractItem(index, 1, true).isEmpty();
     }
 
     @Nullable
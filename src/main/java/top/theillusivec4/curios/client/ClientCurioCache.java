@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.client;
+
+import com.google.common.collect.Maps;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import top.theillusivec4.curios.api.capability.ICurioItemHandler;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+
+/**
+ * Keeps the last known curio map of entities on the client by UUID, along with the handler version it was synced at
+ * When an entity comes back into tracking range or the player changes dimension, the server only sends the current
+ * version and the cached map is reused if it is still current
+ * Only accessed from the client thread
+ */
+public class ClientCurioCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private static final Map<UUID, Entry> CACHE = new LinkedHashMap<UUID, Entry>(16, 0.75F, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Stores a fully synced curio map, which is the map the entity's handler is using
+     */
+    public static void put(EntityLivingBase entity, int version, SortedMap<String, CurioStackHandler> map) {
+        CACHE.put(entity.getUniqueID(), new Entry(entity.getEntityId(), version, map));
+    }
+
+    /**
+     * Moves the cached map of an entity to a new version after a change from the server was applied to its handler
+     * The map is taken from the handler again, as the change may have added or removed a slot type
+     */
+    public static void update(EntityLivingBase entity, ICurioItemHandler handler, int version) {
+        Entry entry = CACHE.get(entity.getUniqueID());
+
+        if (entry != null && entry.entityId == entity.getEntityId()) {
+            entry.version = version;
+            entry.map = handler.getCurioMap();
+        }
+    }
+
+    /**
+     * Gives a copy of the cached map of an entity to its handler if it is still at the given version
+     * The handlers are copied so that the new entity does not share them with the entity the map was cached from,
+     * which may still be in the world until it is removed
+     * @return  True if the cached map was used, false if a full sync is needed
+     */
+    public static boolean restore(EntityLivingBase entity, ICurioItemHandler handler, int version) {
+        Entry entry = CACHE.get(entity.getUniqueID());
+
+        if (entry != null && entry.version == version && version != ICurioItemHandler.UNVERSIONED) {
+            SortedMap<String, CurioStackHandler> map = Maps.newTreeMap();
+
+            for (Map.Entry<String, CurioStackHandler> cached : entry.map.entrySet()) {
+                CurioStackHandler stackHandler = cached.getValue();
+                CurioStackHandler copy = new CurioStackHandler(stackHandler.getSlots());
+                copy.setHidden(stackHandler.isHidden());
+
+                for (int i = 0; i < stackHandler.getSlots(); i++) {
+                    ItemStack stack = stackHandler.getStackInSlot(i);
+
+                    if (!stack.isEmpty()) {
+                        copy.setStackInSlot(i, stack.copy());
+                    }
+                }
+                map.put(cached.getKey(), copy);
+            }
+            entry.entityId = entity.getEntityId();
+            handler.setCurioMap(map);
+            entry.map = handler.getCurioMap();
+            return true;
+        }
+        CACHE.remove(entity.getUniqueID());
+        return false;
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static class Entry {
+
+        private int entityId;
+        private int version;
+        private SortedMap<String, CurioStackHandler> map;
+
+        Entry(int entityId, int version, SortedMap<String, CurioStackHandler> map) {
+            this.entityId = entityId;
+            this.version = version;
+            this.map = map;
+        }
+    }
+}
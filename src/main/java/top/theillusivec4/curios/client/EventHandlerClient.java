@@ -33,12 +33,16 @@ import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraftforge.event.entity.player.ItemTooltipEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
+import top.theillusivec4.curios.api.CurioTagIndex;
 import top.theillusivec4.curios.api.CuriosAPI;
 import top.theillusivec4.curios.api.CuriosRegistry;
+import top.theillusivec4.curios.common.holder.CurioHolderRegistry;
 import top.theillusivec4.curios.common.network.NetworkHandler;
 import top.theillusivec4.curios.common.network.client.CPacketOpenCurios;
+import top.theillusivec4.curios.common.network.server.sync.SPacketSyncMap;
 
 import java.util.List;
 import java.util.Map;
@@ -64,6 +68,31 @@ public class EventHandlerClient {
         }
     }
 
+    @SubscribeEvent
+    public void onClientTick(TickEvent.ClientTickEvent evt) {
+
+        if (evt.phase != TickEvent.Phase.END) return;
+
+        Minecraft mc = Minecraft.getInstance();
+        CurioTagIndex.refresh();
+
+        if (mc.world != null) {
+            SPacketSyncMap.purgeReceiving(mc.world);
+
+            if (!mc.isGamePaused()) {
+                CurioHolderRegistry.tick(mc.world);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload evt) {
+
+        if (evt.getWorld().isRemote()) {
+            SPacketSyncMap.clearReceiving();
+        }
+    }
+
     @SubscribeEvent
     public void onTooltip(ItemTooltipEvent evt) {
         ItemStack stack = evt.getItemStack();
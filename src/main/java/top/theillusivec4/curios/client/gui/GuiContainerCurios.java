@@ -24,6 +24,7 @@ import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.InventoryEffectRenderer;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.client.util.InputMappings;
+import net.minecraft.inventory.ClickType;
 import net.minecraft.inventory.Slot;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.MathHelper;
@@ -31,7 +32,6 @@ import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import top.theillusivec4.curios.Curios;
 import top.theillusivec4.curios.api.CuriosAPI;
-import top.theillusivec4.curios.api.capability.ICurioItemHandler;
 import top.theillusivec4.curios.api.inventory.SlotCurio;
 import top.theillusivec4.curios.client.KeyRegistry;
 import top.theillusivec4.curios.common.inventory.ContainerCurios;
@@ -77,6 +77,18 @@ public class GuiContainerCurios extends InventoryEffectRenderer {
         return mouseX >= (double)k && mouseY >= (double)l && mouseX < (double)i1 && mouseY < (double)j1;
     }
 
+    @Override
+    public void tick() {
+        super.tick();
+        ((ContainerCurios)this.inventorySlots).sendPendingScroll(false);
+    }
+
+    @Override
+    protected void handleMouseClick(Slot slotIn, int slotId, int mouseButton, ClickType type) {
+        ((ContainerCurios)this.inventorySlots).sendPendingScroll(true);
+        super.handleMouseClick(slotIn, slotId, mouseButton, type);
+    }
+
     @Override
     public void render(int mouseX, int mouseY, float partialTicks) {
         this.drawDefaultBackground();
@@ -165,8 +177,9 @@ public class GuiContainerCurios extends InventoryEffectRenderer {
     @Override
     public boolean mouseReleased(double mouseReleased1, double mouseReleased3, int mouseReleased5) {
 
-        if (mouseReleased5 == 0) {
+        if (mouseReleased5 == 0 && this.isScrolling) {
             this.isScrolling = false;
+            ((ContainerCurios)this.inventorySlots).sendPendingScroll(true);
         }
 
         if (this.buttonClicked) {
@@ -196,7 +209,7 @@ public class GuiContainerCurios extends InventoryEffectRenderer {
         if (!this.needsScrollBars()) {
             return false;
         } else {
-            int i = ((ContainerCurios)this.inventorySlots).curios.map(ICurioItemHandler::getSlots).orElse(1);
+            int i = Math.max(1, ((ContainerCurios)this.inventorySlots).getMaxScrollIndex());
             this.currentScroll = (float)((double)this.currentScroll - pMouseScrolled1 / (double)i);
             this.currentScroll = MathHelper.clamp(this.currentScroll, 0.0F, 1.0F);
             ((ContainerCurios)this.inventorySlots).scrollTo(this.currentScroll);
@@ -22,13 +22,11 @@ package top.theillusivec4.curios.client.render;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.entity.layers.LayerRenderer;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.item.ItemStack;
 import top.theillusivec4.curios.api.CuriosAPI;
-import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.api.capability.ICurio;
 import top.theillusivec4.curios.common.CuriosConfig;
 
 import javax.annotation.Nonnull;
-import java.util.SortedMap;
 
 public class LayerCurios implements LayerRenderer<EntityLivingBase> {
 
@@ -41,31 +39,22 @@ public class LayerCurios implements LayerRenderer<EntityLivingBase> {
         }
         GlStateManager.pushMatrix();
         CuriosAPI.getCuriosHandler(entitylivingbaseIn).ifPresent(handler -> {
-            SortedMap<String, CurioStackHandler> curios = handler.getCurioMap();
 
             if (entitylivingbaseIn.isSneaking()) {
                 GlStateManager.translatef(0.0f, 0.2f, 0.0f);
             }
+            handler.forEachOccupied((id, stackHandler, index, stack) -> {
+                ICurio curio = stackHandler.getCurio(index);
 
-            for (String id : curios.keySet()) {
-                CurioStackHandler stackHandler = curios.get(id);
-
-                for (int i = 0; i < stackHandler.getSlots(); i++) {
-                    ItemStack stack = stackHandler.getStackInSlot(i);
-
-                    if (!stack.isEmpty()) {
-                        CuriosAPI.getCurio(stack).ifPresent(curio -> {
-                            if (curio.hasRender(id, entitylivingbaseIn)) {
-                                GlStateManager.pushMatrix();
-                                GlStateManager.color4f(1.0f, 1.0f, 1.0f, 1.0f);
-                                curio.doRender(id, entitylivingbaseIn, limbSwing, limbSwingAmount, partialTicks,
-                                        ageInTicks, netHeadYaw, headPitch, scale);
-                                GlStateManager.popMatrix();
-                            }
-                        });
-                    }
+                if (curio != null && curio.hasRender(id, entitylivingbaseIn)) {
+                    GlStateManager.pushMatrix();
+                    GlStateManager.color4f(1.0f, 1.0f, 1.0f, 1.0f);
+                    curio.doRender(id, entitylivingbaseIn, limbSwing, limbSwingAmount, partialTicks,
+                            ageInTicks, netHeadYaw, headPitch, scale);
+                    GlStateManager.popMatrix();
                 }
-            }
+                return false;
+            });
         });
         GlStateManager.popMatrix();
     }
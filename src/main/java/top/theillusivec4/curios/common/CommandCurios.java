@@ -32,12 +32,11 @@ import net.minecraft.command.arguments.EntityArgument;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.text.TextComponentTranslation;
-import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
 import top.theillusivec4.curios.api.CurioType;
 import top.theillusivec4.curios.api.CuriosAPI;
 import top.theillusivec4.curios.api.inventory.CurioStackHandler;
-import top.theillusivec4.curios.common.network.NetworkHandler;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
 import top.theillusivec4.curios.common.network.server.sync.SPacketSyncMap;
 
 import java.util.SortedMap;
@@ -88,6 +87,9 @@ public class CommandCurios {
                 .then(Commands.argument("player", EntityArgument.player())
                         .executes(context -> resetSlotsForPlayer(context.getSource(), EntityArgument.getPlayer(context, "player")))));
 
+        literalargumentbuilder.then(Commands.literal("stats")
+                .executes(context -> showPacketStats(context.getSource())));
+
         dispatcher.register(literalargumentbuilder);
     }
 
@@ -117,15 +119,12 @@ public class CommandCurios {
 
     private static int clearSlotsForPlayer(CommandSource source, EntityPlayerMP playerMP, String slot) {
         CuriosAPI.getCuriosHandler(playerMP).ifPresent(handler -> {
-            SortedMap<String, CurioStackHandler> map = handler.getCurioMap();
+            CurioStackHandler stackHandler = slot.isEmpty() ? null : handler.getStackHandler(slot);
 
-            if (!slot.isEmpty() && map.get(slot) != null) {
-                clear(map.get(slot));
+            if (stackHandler != null) {
+                clear(stackHandler);
             } else {
-
-                for (String id : map.keySet()) {
-                    clear(map.get(id));
-                }
+                handler.forEachType((id, stacks) -> clear(stacks));
             }
         });
 
@@ -149,13 +148,22 @@ public class CommandCurios {
                 }
             }
             handler.setCurioMap(slots);
-            NetworkHandler.INSTANCE.sendTo(new SPacketSyncMap(playerMP.getEntityId(), handler.getCurioMap()),
-                    playerMP.connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
+            SPacketSyncMap.send(playerMP.getEntityId(), handler.getVersion(), handler.getCurioMap(),
+                    playerMP.connection.getNetworkManager());
         });
         source.sendFeedback(new TextComponentTranslation("commands.curios.reset.success", playerMP.getDisplayName()), true);
         return Command.SINGLE_SUCCESS;
     }
 
+    private static int showPacketStats(CommandSource source) {
+        source.sendFeedback(new TextComponentTranslation("commands.curios.stats.header", CurioPacketLimiter.getConnections()), false);
+
+        for (CurioPacketLimiter.Type type : CurioPacketLimiter.Type.values()) {
+            source.sendFeedback(new TextComponentTranslation("commands.curios.stats.entry", type.getName(), type.getAccepted(), type.getThrottled(), type.getInvalid()), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
     private static void clear(CurioStackHandler stacks) {
         for (int i = 0; i < stacks.getSlots(); i++) {
             stacks.setStackInSlot(i, ItemStack.EMPTY);
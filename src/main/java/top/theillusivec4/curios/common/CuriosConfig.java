@@ -24,7 +24,9 @@ import net.minecraftforge.common.ForgeConfigSpec;
 import org.apache.commons.lang3.tuple.Pair;
 import top.theillusivec4.curios.Curios;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CuriosConfig {
 
@@ -34,6 +36,11 @@ public class CuriosConfig {
 
         public final ForgeConfigSpec.ConfigValue<List<String>> disabledCurios;
         public final ForgeConfigSpec.ConfigValue<List<String>> createCurios;
+        public final ForgeConfigSpec.IntValue syncBytesPerTick;
+        public final ForgeConfigSpec.IntValue syncNearDistance;
+        public final ForgeConfigSpec.IntValue syncFarInterval;
+        public final ForgeConfigSpec.IntValue syncInterval;
+        public final ForgeConfigSpec.ConfigValue<List<String>> syncTypeIntervals;
 
         Common(ForgeConfigSpec.Builder builder) {
             builder.push("common");
@@ -50,6 +57,31 @@ public class CuriosConfig {
                     .worldRestart()
                     .define("createCurios", Lists.newArrayList());
 
+            syncBytesPerTick = builder
+                    .comment("Maximum number of bytes of full curio inventories sent to clients each tick, queued syncs are sent on later ticks")
+                    .translation(CONFIG_PREFIX + "syncBytesPerTick")
+                    .defineInRange("syncBytesPerTick", 65536, 1024, Integer.MAX_VALUE);
+
+            syncNearDistance = builder
+                    .comment("Distance in blocks within which tracking players receive curio changes immediately")
+                    .translation(CONFIG_PREFIX + "syncNearDistance")
+                    .defineInRange("syncNearDistance", 32, 0, 256);
+
+            syncFarInterval = builder
+                    .comment("Interval in ticks at which tracking players further away receive the latest curios of an entity")
+                    .translation(CONFIG_PREFIX + "syncFarInterval")
+                    .defineInRange("syncFarInterval", 20, 1, 1200);
+
+            syncInterval = builder
+                    .comment("Minimum interval in ticks between syncs of the same curio slot, changes in between are merged and only the latest is sent")
+                    .translation(CONFIG_PREFIX + "syncInterval")
+                    .defineInRange("syncInterval", 5, 0, 1200);
+
+            syncTypeIntervals = builder
+                    .comment("List of sync intervals for specific curio types, in the format identifier=ticks")
+                    .translation(CONFIG_PREFIX + "syncTypeIntervals")
+                    .define("syncTypeIntervals", Lists.newArrayList());
+
             builder.pop();
         }
     }
@@ -71,6 +103,32 @@ public class CuriosConfig {
         }
     }
 
+    private static List<String> parsedTypeIntervals;
+    private static Map<String, Integer> typeIntervals = new HashMap<>();
+
+    /**
+     * @param identifier    The identifier of the curio type
+     * @return  The minimum interval in ticks between syncs of a slot of the curio type
+     */
+    public static int getSyncInterval(String identifier) {
+        List<String> intervals = COMMON.syncTypeIntervals.get();
+
+        if (intervals != parsedTypeIntervals) {
+            Map<String, Integer> parsed = new HashMap<>();
+
+            for (String entry : intervals) {
+                String[] split = entry.split("=");
+
+                if (split.length == 2 && split[1].trim().matches("\\d{1,4}")) {
+                    parsed.put(split[0].trim(), Integer.parseInt(split[1].trim()));
+                }
+            }
+            typeIntervals = parsed;
+            parsedTypeIntervals = intervals;
+        }
+        return typeIntervals.getOrDefault(identifier, COMMON.syncInterval.get());
+    }
+
     public static final ForgeConfigSpec clientSpec;
     public static final Client CLIENT;
     static {
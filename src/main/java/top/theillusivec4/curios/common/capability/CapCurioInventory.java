@@ -19,12 +19,14 @@
 
 package top.theillusivec4.curios.common.capability;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.INBTBase;
 import net.minecraft.nbt.NBTTagCompound;
@@ -43,6 +45,8 @@ import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraftforge.items.ItemStackHandler;
 import top.theillusivec4.curios.api.CurioType;
 import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.CuriosAPI.FinderData;
+import top.theillusivec4.curios.api.CuriosRegistry;
 import top.theillusivec4.curios.api.capability.CuriosCapability;
 import top.theillusivec4.curios.api.capability.ICurioItemHandler;
 import top.theillusivec4.curios.api.inventory.CurioStackHandler;
@@ -52,9 +56,20 @@ import top.theillusivec4.curios.common.network.server.sync.SPacketSyncSize;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collections;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 public class CapCurioInventory {
 
@@ -96,7 +111,7 @@ public class CapCurioInventory {
                 instance.setDisabled(disabled);
 
                 if (!tagList.isEmpty()) {
-                    SortedMap<String, CurioStackHandler> curios = instance.getDefaultSlots();
+                    SortedMap<String, CurioStackHandler> curios = Maps.newTreeMap();
 
                     for (int i = 0; i < tagList.size(); i++) {
                         NBTTagCompound itemtag = tagList.getCompound(i);
@@ -118,6 +133,7 @@ public class CapCurioInventory {
                             }
                         }
                     }
+                    CurioSlotTemplate.get().fill(curios, disabled);
                     instance.setCurioMap(curios);
                 }
             }
@@ -130,75 +146,380 @@ public class CapCurioInventory {
 
     public static class CurioInventoryWrapper implements ICurioItemHandler {
 
-        SortedMap<String, CurioStackHandler> curioSlots;
+        /** Source of handler versions, shared so that a version is never reused by another handler*/
+        private static final AtomicInteger VERSIONS = new AtomicInteger();
+
+        /**
+         * The identifiers of the slot types in sorted order, with their handlers at the same index in handlers
+         * Both are null until first accessed, so that inventories read from NBT never create the default handlers
+         */
+        String[] identifiers;
+        CurioStackHandler[] handlers;
+        /** The index in handlers for each type ordinal, or -1 if the type has no handler*/
+        int[] ordinalToIndex;
+        /** Read-only view of the handlers that always reflects the current arrays*/
+        final SortedMap<String, CurioStackHandler> curioMap = new CurioMapView(null, null);
+        /** Occupied slots by item, rebuilt on lookup when the layout or the generation of any handler has changed*/
+        final Map<Item, List<FinderData>> itemIndex = new IdentityHashMap<>();
+        /** Incremented whenever the generation of any of the handlers is incremented*/
+        int generation;
+        int indexedGeneration;
+        boolean indexStale = true;
+        final Runnable generationListener = () -> this.generation++;
         NonNullList<ItemStack> invalidCache;
         Set<String> disabled;
         EntityLivingBase wearer;
+        int version = VERSIONS.incrementAndGet();
 
-        CurioInventoryWrapper() {
+        public CurioInventoryWrapper() {
             this(null);
         }
 
         CurioInventoryWrapper(final EntityLivingBase livingBase) {
             this.disabled = Sets.newHashSet();
-            this.curioSlots = this.getDefaultSlots();
             this.invalidCache = NonNullList.create();
             this.wearer = livingBase;
         }
 
         @Override
         public void setStackInSlot(String identifier, int slot, @Nonnull ItemStack stack) {
-            this.curioSlots.get(identifier).setStackInSlot(slot, stack);
+            this.getStackHandler(identifier).setStackInSlot(slot, stack);
         }
 
         @Override
         public SortedMap<String, CurioStackHandler> getDefaultSlots() {
             SortedMap<String, CurioStackHandler> slots = Maps.newTreeMap();
-
-            for (String id : CuriosAPI.getTypeIdentifiers()) {
-
-                if (disabled.isEmpty() || !disabled.contains(id)) {
-                    CurioType type = CuriosAPI.getType(id);
-
-                    if (type != null && type.isEnabled()) {
-                        CurioStackHandler handler = new CurioStackHandler(type.getSize());
-                        handler.setHidden(type.isHidden());
-                        slots.put(id, handler);
-                    }
-                }
-            }
+            CurioSlotTemplate.get().fill(slots, disabled);
             return slots;
         }
 
         @Override
         public int getSlots() {
+            this.ensureLayout();
             int totalSlots = 0;
 
-            for (ItemStackHandler stacks : curioSlots.values()) {
-                totalSlots += stacks.getSlots();
+            for (CurioStackHandler stackHandler : this.handlers) {
+                totalSlots += stackHandler.getSlots();
             }
             return totalSlots;
         }
 
         @Nonnull
         public ItemStack getStackInSlot(String identifier, int slot) {
-            return this.curioSlots.get(identifier).getStackInSlot(slot);
+            return this.getStackHandler(identifier).getStackInSlot(slot);
         }
 
         @Nullable
         @Override
         public CurioStackHandler getStackHandler(String identifier) {
-            return this.curioSlots.get(identifier);
+            this.ensureLayout();
+            CurioType type = CuriosAPI.getType(identifier);
+
+            if (type != null && type.getOrdinal() >= 0) {
+                return this.getStackHandler(type.getOrdinal());
+            }
+            int index = Arrays.binarySearch(this.identifiers, identifier);
+            return index >= 0 ? this.handlers[index] : null;
+        }
+
+        @Nullable
+        @Override
+        public CurioStackHandler getStackHandler(int ordinal) {
+            this.ensureLayout();
+            int index = ordinal >= 0 && ordinal < this.ordinalToIndex.length ? this.ordinalToIndex[ordinal] : -1;
+            return index >= 0 ? this.handlers[index] : null;
         }
 
         @Override
         public SortedMap<String, CurioStackHandler> getCurioMap() {
-            return Collections.unmodifiableSortedMap(this.curioSlots);
+            return this.curioMap;
         }
 
         @Override
         public void setCurioMap(SortedMap<String, CurioStackHandler> map) {
-            this.curioSlots = map;
+            this.setLayout(map);
+
+            for (CurioStackHandler stackHandler : this.handlers) {
+                stackHandler.markAllDirty();
+            }
+            this.markChanged();
+        }
+
+        @Override
+        public void forEachType(BiConsumer<String, CurioStackHandler> visitor) {
+            this.ensureLayout();
+            String[] identifiers = this.identifiers;
+            CurioStackHandler[] handlers = this.handlers;
+
+            for (int i = 0; i < handlers.length; i++) {
+                visitor.accept(identifiers[i], handlers[i]);
+            }
+        }
+
+        @Override
+        public boolean forEachSlot(SlotVisitor visitor) {
+            this.ensureLayout();
+            String[] identifiers = this.identifiers;
+            CurioStackHandler[] handlers = this.handlers;
+
+            for (int i = 0; i < handlers.length; i++) {
+                CurioStackHandler stackHandler = handlers[i];
+
+                for (int j = 0; j < stackHandler.getSlots(); j++) {
+
+                    if (visitor.visit(identifiers[i], stackHandler, j, stackHandler.getStackInSlot(j))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean forEachOccupied(SlotVisitor visitor) {
+            this.ensureLayout();
+            String[] identifiers = this.identifiers;
+            CurioStackHandler[] handlers = this.handlers;
+
+            for (int i = 0; i < handlers.length; i++) {
+                CurioStackHandler stackHandler = handlers[i];
+
+                for (int j = 0; j < stackHandler.getSlots(); j++) {
+                    ItemStack stack = stackHandler.getStackInSlot(j);
+
+                    if (!stack.isEmpty() && visitor.visit(identifiers[i], stackHandler, j, stack)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Indexed lookups only compare the generation kept from the handlers' generation listeners, so they do not
+         * depend on the curio tick and see changes made during the same tick
+         * An ItemStack can only change its item by becoming empty, so entries are checked for that instead of being
+         * removed when a slot is modified in place
+         */
+        @Nullable
+        @Override
+        public FinderData findFirst(Item item) {
+            List<FinderData> found = this.getItemIndex().get(item);
+
+            if (found != null) {
+
+                for (int i = 0; i < found.size(); i++) {
+                    FinderData data = found.get(i);
+
+                    if (!data.getStack().isEmpty()) {
+                        return data;
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<FinderData> findAll(Item item) {
+            List<FinderData> found = this.getItemIndex().get(item);
+
+            if (found == null) {
+                return ImmutableList.of();
+            }
+            ImmutableList.Builder<FinderData> builder = ImmutableList.builder();
+
+            for (int i = 0; i < found.size(); i++) {
+                FinderData data = found.get(i);
+
+                if (!data.getStack().isEmpty()) {
+                    builder.add(data);
+                }
+            }
+            return builder.build();
+        }
+
+        @Nullable
+        @Override
+        public FinderData findFirst(Item item, Set<String> identifiers) {
+            List<FinderData> found = this.getItemIndex().get(item);
+
+            if (found != null) {
+
+                for (int i = 0; i < found.size(); i++) {
+                    FinderData data = found.get(i);
+
+                    if (!data.getStack().isEmpty() && identifiers.contains(data.getIdentifier())) {
+                        return data;
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean isEquipped(Item item) {
+            return this.findFirst(item) != null;
+        }
+
+        private Map<Item, List<FinderData>> getItemIndex() {
+            this.ensureLayout();
+
+            if (this.indexStale || this.indexedGeneration != this.generation) {
+                this.itemIndex.clear();
+                this.indexedGeneration = this.generation;
+                this.forEachOccupied((identifier, stackHandler, index, stack) -> {
+                    this.itemIndex.computeIfAbsent(stack.getItem(), key -> new ArrayList<>(1))
+                            .add(new FinderData(identifier, index, stack));
+                    return false;
+                });
+                this.indexStale = false;
+            }
+            return this.itemIndex;
+        }
+
+        /**
+         * Copies the handlers of the map into the sorted arrays and resolves the ordinal of each type once
+         * Types that are not registered on this side are kept, but can only be found by their identifier
+         */
+        private void setLayout(Map<String, CurioStackHandler> map) {
+            String[] identifiers = map.keySet().toArray(new String[0]);
+            Arrays.sort(identifiers);
+            CurioStackHandler[] handlers = new CurioStackHandler[identifiers.length];
+            int[] ordinalToIndex = new int[CuriosRegistry.getSnapshot().size()];
+            Arrays.fill(ordinalToIndex, -1);
+
+            for (int i = 0; i < identifiers.length; i++) {
+                handlers[i] = map.get(identifiers[i]);
+                CurioType type = CuriosAPI.getType(identifiers[i]);
+
+                if (type != null && type.getOrdinal() >= 0 && type.getOrdinal() < ordinalToIndex.length) {
+                    ordinalToIndex[type.getOrdinal()] = i;
+                }
+            }
+            this.identifiers = identifiers;
+            this.handlers = handlers;
+            this.ordinalToIndex = ordinalToIndex;
+            this.indexStale = true;
+            this.listenTo(handlers);
+        }
+
+        private void ensureLayout() {
+
+            if (this.handlers == null) {
+                this.setDefaultLayout();
+            }
+        }
+
+        /**
+         * Stamps the default slots from the template, sharing its identifier and ordinal arrays as they are never
+         * modified in place
+         */
+        private void setDefaultLayout() {
+            CurioSlotTemplate template = CurioSlotTemplate.get();
+            this.identifiers = template.identifiers;
+            this.handlers = template.createHandlers();
+            this.ordinalToIndex = template.ordinalToIndex;
+            this.indexStale = true;
+            this.listenTo(this.handlers);
+        }
+
+        private void listenTo(CurioStackHandler[] handlers) {
+
+            for (CurioStackHandler stackHandler : handlers) {
+                stackHandler.setGenerationListener(this.generationListener);
+            }
+        }
+
+        /**
+         * Inserts a handler into copies of the arrays, as the identifier and ordinal arrays may be shared with the
+         * template, and shifts the indices of the types after it
+         */
+        private void putHandler(String identifier, CurioStackHandler stackHandler) {
+            this.ensureLayout();
+            int index = Arrays.binarySearch(this.identifiers, identifier);
+
+            if (index >= 0) {
+                CurioStackHandler[] handlers = this.handlers.clone();
+                handlers[index] = stackHandler;
+                this.handlers = handlers;
+                this.indexStale = true;
+                stackHandler.setGenerationListener(this.generationListener);
+                return;
+            }
+            index = -index - 1;
+            int length = this.identifiers.length;
+            String[] identifiers = new String[length + 1];
+            CurioStackHandler[] handlers = new CurioStackHandler[length + 1];
+            System.arraycopy(this.identifiers, 0, identifiers, 0, index);
+            System.arraycopy(this.identifiers, index, identifiers, index + 1, length - index);
+            System.arraycopy(this.handlers, 0, handlers, 0, index);
+            System.arraycopy(this.handlers, index, handlers, index + 1, length - index);
+            identifiers[index] = identifier;
+            handlers[index] = stackHandler;
+            stackHandler.setGenerationListener(this.generationListener);
+            CurioType type = CuriosAPI.getType(identifier);
+            int ordinal = type != null ? type.getOrdinal() : -1;
+            int[] ordinalToIndex = Arrays.copyOf(this.ordinalToIndex, Math.max(this.ordinalToIndex.length, ordinal + 1));
+
+            for (int i = 0; i < ordinalToIndex.length; i++) {
+
+                if (i >= this.ordinalToIndex.length) {
+                    ordinalToIndex[i] = -1;
+                } else if (ordinalToIndex[i] >= index) {
+                    ordinalToIndex[i]++;
+                }
+            }
+
+            if (ordinal >= 0) {
+                ordinalToIndex[ordinal] = index;
+            }
+            this.identifiers = identifiers;
+            this.handlers = handlers;
+            this.ordinalToIndex = ordinalToIndex;
+            this.indexStale = true;
+        }
+
+        /**
+         * Removes a handler from copies of the arrays and shifts the indices of the types after it
+         */
+        private void removeHandler(String identifier) {
+            this.ensureLayout();
+            int index = Arrays.binarySearch(this.identifiers, identifier);
+
+            if (index < 0) {
+                return;
+            }
+            int length = this.identifiers.length;
+            String[] identifiers = new String[length - 1];
+            CurioStackHandler[] handlers = new CurioStackHandler[length - 1];
+            System.arraycopy(this.identifiers, 0, identifiers, 0, index);
+            System.arraycopy(this.identifiers, index + 1, identifiers, index, length - index - 1);
+            System.arraycopy(this.handlers, 0, handlers, 0, index);
+            System.arraycopy(this.handlers, index + 1, handlers, index, length - index - 1);
+            int[] ordinalToIndex = this.ordinalToIndex.clone();
+
+            for (int i = 0; i < ordinalToIndex.length; i++) {
+
+                if (ordinalToIndex[i] == index) {
+                    ordinalToIndex[i] = -1;
+                } else if (ordinalToIndex[i] > index) {
+                    ordinalToIndex[i]--;
+                }
+            }
+            this.identifiers = identifiers;
+            this.handlers = handlers;
+            this.ordinalToIndex = ordinalToIndex;
+            this.indexStale = true;
+        }
+
+        @Override
+        public int getVersion() {
+            return this.version;
+        }
+
+        @Override
+        public void markChanged() {
+            this.version = VERSIONS.incrementAndGet();
         }
 
         @Override
@@ -206,11 +527,15 @@ public class CapCurioInventory {
             CurioType type = CuriosAPI.getType(identifier);
 
             if (type != null) {
-                this.curioSlots.putIfAbsent(identifier, new CurioStackHandler(type.getSize()));
+
+                if (this.getStackHandler(identifier) == null) {
+                    this.putHandler(identifier, new CurioStackHandler(type.getSize()));
+                }
                 this.disabled.remove(identifier);
+                this.markChanged();
 
                 if (!wearer.world.isRemote && wearer instanceof EntityPlayerMP) {
-                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncActive(wearer.getEntityId(), identifier, false),
+                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncActive(wearer.getEntityId(), this.version, identifier, false),
                             ((EntityPlayerMP)wearer).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
                 }
             }
@@ -218,15 +543,16 @@ public class CapCurioInventory {
 
         @Override
         public void disableCurio(String identifier) {
-            CurioStackHandler stackHandler = this.curioSlots.get(identifier);
+            CurioStackHandler stackHandler = this.getStackHandler(identifier);
 
             if (stackHandler != null) {
                 dropOrGiveLast(stackHandler, identifier, stackHandler.getSlots());
-                this.curioSlots.remove(identifier);
+                this.removeHandler(identifier);
                 this.disabled.add(identifier);
+                this.markChanged();
 
                 if (wearer instanceof EntityPlayerMP) {
-                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncActive(wearer.getEntityId(), identifier, true),
+                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncActive(wearer.getEntityId(), this.version, identifier, true),
                             ((EntityPlayerMP) wearer).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
                 }
             }
@@ -236,13 +562,14 @@ public class CapCurioInventory {
         public void addCurioSlot(String identifier, int amount) {
 
             if (amount > 0) {
-                CurioStackHandler stackHandler = this.curioSlots.get(identifier);
+                CurioStackHandler stackHandler = this.getStackHandler(identifier);
 
                 if (stackHandler != null) {
                     stackHandler.addSize(amount);
+                    this.markChanged();
 
                     if (wearer instanceof EntityPlayerMP) {
-                        NetworkHandler.INSTANCE.sendTo(new SPacketSyncSize(wearer.getEntityId(), identifier, amount, false),
+                        NetworkHandler.INSTANCE.sendTo(new SPacketSyncSize(wearer.getEntityId(), this.version, identifier, amount, false),
                                 ((EntityPlayerMP) wearer).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
                     }
                 }
@@ -253,14 +580,15 @@ public class CapCurioInventory {
         public void removeCurioSlot(String identifier, int amount) {
 
             if (amount > 0) {
-                CurioStackHandler stackHandler = this.curioSlots.get(identifier);
+                CurioStackHandler stackHandler = this.getStackHandler(identifier);
 
                 if (stackHandler != null) {
                     amount = Math.min(stackHandler.getSlots() - 1, amount);
                     dropOrGiveLast(stackHandler, identifier, amount);
+                    this.markChanged();
 
                     if (wearer instanceof EntityPlayerMP) {
-                        NetworkHandler.INSTANCE.sendTo(new SPacketSyncSize(wearer.getEntityId(), identifier, amount, true),
+                        NetworkHandler.INSTANCE.sendTo(new SPacketSyncSize(wearer.getEntityId(), this.version, identifier, amount, true),
                                 ((EntityPlayerMP) wearer).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
                     }
                     stackHandler.removeSize(amount);
@@ -331,6 +659,177 @@ public class CapCurioInventory {
                 }
             }
         }
+
+        /**
+         * Read-only sorted view over the identifier and handler arrays, optionally limited to a range of identifiers
+         * Lookups binary search the current arrays and iterators walk the arrays they started with, so a layout change
+         * is seen by the next call without copying the handlers into a map
+         */
+        private class CurioMapView extends AbstractMap<String, CurioStackHandler>
+                implements SortedMap<String, CurioStackHandler> {
+
+            /** The lowest identifier in the view, or null if unbounded*/
+            @Nullable
+            private final String fromKey;
+            /** The identifier above the view, or null if unbounded*/
+            @Nullable
+            private final String toKey;
+
+            CurioMapView(@Nullable String fromKey, @Nullable String toKey) {
+                this.fromKey = fromKey;
+                this.toKey = toKey;
+            }
+
+            @Override
+            public CurioStackHandler get(Object key) {
+                int index = this.indexOf(key);
+                return index >= 0 ? CurioInventoryWrapper.this.handlers[index] : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return this.indexOf(key) >= 0;
+            }
+
+            @Override
+            public int size() {
+                ensureLayout();
+                String[] identifiers = CurioInventoryWrapper.this.identifiers;
+                return Math.max(0, this.upper(identifiers) - this.lower(identifiers));
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return this.size() == 0;
+            }
+
+            @Nonnull
+            @Override
+            public Set<Entry<String, CurioStackHandler>> entrySet() {
+                return new AbstractSet<Entry<String, CurioStackHandler>>() {
+
+                    @Override
+                    public Iterator<Entry<String, CurioStackHandler>> iterator() {
+                        ensureLayout();
+                        String[] identifiers = CurioInventoryWrapper.this.identifiers;
+                        CurioStackHandler[] handlers = CurioInventoryWrapper.this.handlers;
+                        int upper = CurioMapView.this.upper(identifiers);
+
+                        return new Iterator<Entry<String, CurioStackHandler>>() {
+
+                            private int index = CurioMapView.this.lower(identifiers);
+
+                            @Override
+                            public boolean hasNext() {
+                                return this.index < upper;
+                            }
+
+                            @Override
+                            public Entry<String, CurioStackHandler> next() {
+
+                                if (!this.hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                int i = this.index++;
+                                return new SimpleImmutableEntry<>(identifiers[i], handlers[i]);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return CurioMapView.this.size();
+                    }
+                };
+            }
+
+            @Nullable
+            @Override
+            public Comparator<? super String> comparator() {
+                return null;
+            }
+
+            @Nonnull
+            @Override
+            public SortedMap<String, CurioStackHandler> subMap(String fromKey, String toKey) {
+
+                if (fromKey.compareTo(toKey) > 0) {
+                    throw new IllegalArgumentException("fromKey > toKey");
+                }
+                return new CurioMapView(this.bound(fromKey), this.bound(toKey));
+            }
+
+            @Nonnull
+            @Override
+            public SortedMap<String, CurioStackHandler> headMap(String toKey) {
+                return new CurioMapView(this.fromKey, this.bound(toKey));
+            }
+
+            @Nonnull
+            @Override
+            public SortedMap<String, CurioStackHandler> tailMap(String fromKey) {
+                return new CurioMapView(this.bound(fromKey), this.toKey);
+            }
+
+            @Override
+            public String firstKey() {
+                ensureLayout();
+                String[] identifiers = CurioInventoryWrapper.this.identifiers;
+                int lower = this.lower(identifiers);
+
+                if (lower >= this.upper(identifiers)) {
+                    throw new NoSuchElementException();
+                }
+                return identifiers[lower];
+            }
+
+            @Override
+            public String lastKey() {
+                ensureLayout();
+                String[] identifiers = CurioInventoryWrapper.this.identifiers;
+                int upper = this.upper(identifiers);
+
+                if (upper <= this.lower(identifiers)) {
+                    throw new NoSuchElementException();
+                }
+                return identifiers[upper - 1];
+            }
+
+            private int indexOf(Object key) {
+
+                if (!(key instanceof String) || !this.inRange((String) key)) {
+                    return -1;
+                }
+                ensureLayout();
+                return Arrays.binarySearch(CurioInventoryWrapper.this.identifiers, key);
+            }
+
+            private boolean inRange(String key) {
+                return (this.fromKey == null || key.compareTo(this.fromKey) >= 0)
+                        && (this.toKey == null || key.compareTo(this.toKey) < 0);
+            }
+
+            private String bound(String key) {
+
+                if (!this.inRange(key) && !key.equals(this.toKey)) {
+                    throw new IllegalArgumentException("key out of range");
+                }
+                return key;
+            }
+
+            private int lower(String[] identifiers) {
+                return this.fromKey == null ? 0 : insertionPoint(identifiers, this.fromKey);
+            }
+
+            private int upper(String[] identifiers) {
+                return this.toKey == null ? identifiers.length : insertionPoint(identifiers, this.toKey);
+            }
+        }
+    }
+
+    private static int insertionPoint(String[] identifiers, String key) {
+        int index = Arrays.binarySearch(identifiers, key);
+        return index >= 0 ? index : -index - 1;
     }
 
     public static class Provider implements ICapabilitySerializable<INBTBase> {
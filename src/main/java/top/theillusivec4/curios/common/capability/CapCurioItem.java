@@ -19,6 +19,7 @@
 
 package top.theillusivec4.curios.common.capability;
 
+import net.minecraft.item.Item;
 import net.minecraft.nbt.INBTBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
@@ -26,6 +27,7 @@ import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityManager;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import net.minecraftforge.common.util.LazyOptional;
+import top.theillusivec4.curios.api.CuriosAPI;
 import top.theillusivec4.curios.api.capability.CuriosCapability;
 import top.theillusivec4.curios.api.capability.ICurio;
 
@@ -52,6 +54,15 @@ public class CapCurioItem {
         return new Provider(curio);
     }
 
+    /**
+     * Creates a provider that can be returned for every ItemStack of an item with a shared curio, handing out the
+     * LazyOptional of the shared curio instead of creating one for each ItemStack
+     * @param item  The item, which must already have a shared curio registered
+     */
+    public static ICapabilityProvider createSharedProvider(Item item) {
+        return new Provider(CuriosAPI.getSharedCurio(item));
+    }
+
     private static class CurioWrapper implements ICurio {}
 
     public static class Provider implements ICapabilityProvider {
@@ -59,7 +70,11 @@ public class CapCurioItem {
         final LazyOptional<ICurio> capability;
 
         Provider(ICurio curio) {
-            this.capability = LazyOptional.of(() -> curio);
+            this(LazyOptional.of(() -> curio));
+        }
+
+        Provider(LazyOptional<ICurio> capability) {
+            this.capability = capability;
         }
 
         @SuppressWarnings("ConstantConditions")
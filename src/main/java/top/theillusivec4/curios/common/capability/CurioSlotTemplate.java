@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.capability;
+
+import top.theillusivec4.curios.api.CuriosRegistry;
+import top.theillusivec4.curios.api.CurioTypeSnapshot;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The default slots of a new curio inventory, precomputed once per registry snapshot so that new inventories only
+ * have to create their handlers
+ */
+final class CurioSlotTemplate {
+
+    private static volatile CurioSlotTemplate current = new CurioSlotTemplate(CuriosRegistry.getSnapshot());
+
+    final CurioTypeSnapshot snapshot;
+    /** The identifiers of the types enabled by default, in sorted order*/
+    final String[] identifiers;
+    final int[] sizes;
+    final boolean[] hidden;
+    /** The index in identifiers for each type ordinal, or -1 if the type is not enabled by default*/
+    final int[] ordinalToIndex;
+
+    private CurioSlotTemplate(CurioTypeSnapshot snapshot) {
+        this.snapshot = snapshot;
+        int count = 0;
+
+        for (int i = 0; i < snapshot.size(); i++) {
+
+            if (snapshot.isEnabledByDefault(i)) {
+                count++;
+            }
+        }
+        this.identifiers = new String[count];
+        this.sizes = new int[count];
+        this.hidden = new boolean[count];
+        this.ordinalToIndex = new int[snapshot.size()];
+        Arrays.fill(this.ordinalToIndex, -1);
+        int index = 0;
+
+        for (int i = 0; i < snapshot.size(); i++) {
+
+            if (snapshot.isEnabledByDefault(i)) {
+                this.identifiers[index] = snapshot.getIdentifiers().get(i);
+                this.sizes[index] = snapshot.getDefaultSize(i);
+                this.hidden[index] = snapshot.isHiddenByDefault(i);
+                this.ordinalToIndex[i] = index;
+                index++;
+            }
+        }
+    }
+
+    /**
+     * @return  The template for the current registry snapshot, rebuilt if the registry has been frozen or modified
+     */
+    static CurioSlotTemplate get() {
+        CurioSlotTemplate template = current;
+        CurioTypeSnapshot snapshot = CuriosRegistry.getSnapshot();
+
+        if (template.snapshot != snapshot) {
+            template = new CurioSlotTemplate(snapshot);
+            current = template;
+        }
+        return template;
+    }
+
+    CurioStackHandler createHandler(int index) {
+        CurioStackHandler stackHandler = new CurioStackHandler(sizes[index]);
+        stackHandler.setHidden(hidden[index]);
+        return stackHandler;
+    }
+
+    /**
+     * @return  A new handler for each default type
+     */
+    CurioStackHandler[] createHandlers() {
+        CurioStackHandler[] handlers = new CurioStackHandler[identifiers.length];
+
+        for (int i = 0; i < handlers.length; i++) {
+            handlers[i] = createHandler(i);
+        }
+        return handlers;
+    }
+
+    /**
+     * Adds a new handler for each default type that is not disabled and not already in the map
+     */
+    void fill(Map<String, CurioStackHandler> map, Set<String> disabled) {
+
+        for (int i = 0; i < identifiers.length; i++) {
+            String identifier = identifiers[i];
+
+            if ((disabled.isEmpty() || !disabled.contains(identifier)) && !map.containsKey(identifier)) {
+                map.put(identifier, createHandler(i));
+            }
+        }
+    }
+}
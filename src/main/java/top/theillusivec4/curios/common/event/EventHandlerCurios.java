@@ -22,44 +22,38 @@ package top.theillusivec4.curios.common.event;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.entity.EntityTracker;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Enchantments;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumActionResult;
 import net.minecraft.util.math.MathHelper;
-import net.minecraft.world.WorldServer;
-import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
-import net.minecraftforge.event.entity.living.LivingEvent;
 import net.minecraftforge.event.entity.player.PlayerDropsEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.entity.player.PlayerPickupXpEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.items.ItemStackHandler;
+import top.theillusivec4.curios.api.CurioTagIndex;
 import top.theillusivec4.curios.api.CuriosAPI;
-import top.theillusivec4.curios.api.CuriosRegistry;
 import top.theillusivec4.curios.api.capability.CuriosCapability;
-import top.theillusivec4.curios.api.capability.ICurio;
-import top.theillusivec4.curios.api.event.LivingCurioChangeEvent;
-import top.theillusivec4.curios.api.inventory.CurioStackHandler;
 import top.theillusivec4.curios.common.capability.CapCurioInventory;
+import top.theillusivec4.curios.common.holder.CurioHolderRegistry;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
+import top.theillusivec4.curios.common.network.CurioSyncScheduler;
+import top.theillusivec4.curios.common.network.CurioTypeIds;
 import top.theillusivec4.curios.common.network.NetworkHandler;
-import top.theillusivec4.curios.common.network.server.sync.SPacketSyncContents;
-import top.theillusivec4.curios.common.network.server.sync.SPacketSyncContentsWithTag;
-import top.theillusivec4.curios.common.network.server.sync.SPacketSyncMap;
+import top.theillusivec4.curios.common.network.server.sync.SPacketSyncVersion;
 
 import java.util.Collection;
 import java.util.Set;
-import java.util.SortedMap;
 
 public class EventHandlerCurios {
 
@@ -76,12 +70,14 @@ public class EventHandlerCurios {
 
         if (entity instanceof EntityLivingBase) {
             EntityLivingBase livingBase = (EntityLivingBase)evt.getEntity();
+            CurioHolderRegistry.add(livingBase);
             CuriosAPI.getCuriosHandler(livingBase).ifPresent(handler -> {
                 handler.dropInvalidCache();
 
                 if (entity instanceof EntityPlayerMP) {
                     EntityPlayerMP mp = (EntityPlayerMP)entity;
-                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncMap(mp.getEntityId(), handler.getCurioMap()),
+                    CurioTypeIds.sendTable(mp);
+                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncVersion(mp.getEntityId(), handler.getVersion()),
                             mp.connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
                 }
             });
@@ -95,7 +91,8 @@ public class EventHandlerCurios {
 
         if (player instanceof EntityPlayerMP && target instanceof EntityLivingBase) {
             EntityLivingBase livingBase = (EntityLivingBase)target;
-            CuriosAPI.getCuriosHandler(livingBase).ifPresent(handler -> NetworkHandler.INSTANCE.sendTo(new SPacketSyncMap(livingBase.getEntityId(), handler.getCurioMap()),
+            CuriosAPI.getCuriosHandler(livingBase).ifPresent(handler -> NetworkHandler.INSTANCE.sendTo(
+                    new SPacketSyncVersion(livingBase.getEntityId(), handler.getVersion()),
                     ((EntityPlayerMP)player).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT));
         }
     }
@@ -118,22 +115,14 @@ public class EventHandlerCurios {
         if (!player.world.getGameRules().getBoolean("keepInventory") && !player.isSpectator()) {
             CuriosAPI.getCuriosHandler(player).ifPresent(handler -> {
                 Collection<EntityItem> entityItems = evt.getDrops();
-                SortedMap<String, CurioStackHandler> curioMap = handler.getCurioMap();
+                handler.forEachOccupied((identifier, stackHandler, index, stack) -> {
 
-                for (String identifier : curioMap.keySet()) {
-                    ItemStackHandler stacks = curioMap.get(identifier);
-
-                    for (int i = 0; i < stacks.getSlots(); i++) {
-                        ItemStack stack = stacks.getStackInSlot(i);
-
-                        if (!stack.isEmpty()) {
-                            if (!EnchantmentHelper.hasVanishingCurse(stack)) {
-                                entityItems.add(this.getDroppedItem(stack, player));
-                            }
-                            stacks.setStackInSlot(i, ItemStack.EMPTY);
-                        }
+                    if (!EnchantmentHelper.hasVanishingCurse(stack)) {
+                        entityItems.add(this.getDroppedItem(stack, player));
                     }
-                }
+                    stackHandler.setStackInSlot(index, ItemStack.EMPTY);
+                    return false;
+                });
             });
         }
     }
@@ -143,34 +132,25 @@ public class EventHandlerCurios {
         EntityPlayer player = evt.getEntityPlayer();
 
         if (!player.world.isRemote) {
-            CuriosAPI.getCuriosHandler(player).ifPresent(handler -> {
-                SortedMap<String, CurioStackHandler> curioMap = handler.getCurioMap();
-
-                for (String identifier : curioMap.keySet()) {
-                    ItemStackHandler stacks = curioMap.get(identifier);
-
-                    for (int i = 0; i < stacks.getSlots(); i++) {
-                        ItemStack stack = stacks.getStackInSlot(i);
-
-                        if (!stack.isEmpty() && EnchantmentHelper.getEnchantmentLevel(Enchantments.MENDING, stack) > 0
-                                && stack.isDamaged()) {
-                            evt.setCanceled(true);
-                            EntityXPOrb orb = evt.getOrb();
-                            player.xpCooldown = 2;
-                            player.onItemPickup(orb, 1);
-                            int toRepair = Math.min(orb.xpValue * 2, stack.getDamage());
-                            orb.xpValue -= toRepair / 2;
-                            stack.setDamage(stack.getDamage() - toRepair);
-
-                            if (orb.xpValue > 0) {
-                                player.giveExperiencePoints(orb.xpValue);
-                            }
-                            orb.remove();
-                            return;
-                        }
+            CuriosAPI.getCuriosHandler(player).ifPresent(handler -> handler.forEachOccupied((identifier, stackHandler, index, stack) -> {
+
+                if (EnchantmentHelper.getEnchantmentLevel(Enchantments.MENDING, stack) > 0 && stack.isDamaged()) {
+                    evt.setCanceled(true);
+                    EntityXPOrb orb = evt.getOrb();
+                    player.xpCooldown = 2;
+                    player.onItemPickup(orb, 1);
+                    int toRepair = Math.min(orb.xpValue * 2, stack.getDamage());
+                    orb.xpValue -= toRepair / 2;
+                    stack.setDamage(stack.getDamage() - toRepair);
+
+                    if (orb.xpValue > 0) {
+                        player.giveExperiencePoints(orb.xpValue);
                     }
+                    orb.remove();
+                    return true;
                 }
-            });
+                return false;
+            }));
         }
     }
 
@@ -196,13 +176,12 @@ public class EventHandlerCurios {
                 CuriosAPI.getCuriosHandler(player).ifPresent(handler -> {
 
                     if (!player.world.isRemote) {
-                        SortedMap<String, CurioStackHandler> curios = handler.getCurioMap();
                         Set<String> tags = CuriosAPI.getCurioTags(stack.getItem());
 
                         for (String id : tags) {
 
                             if (curio.canEquip(id, player)) {
-                                ItemStackHandler stackHandler = curios.get(id);
+                                ItemStackHandler stackHandler = handler.getStackHandler(id);
 
                                 if (stackHandler != null) {
 
@@ -230,76 +209,26 @@ public class EventHandlerCurios {
     }
 
     @SubscribeEvent
-    public void onCurioTick(LivingEvent.LivingUpdateEvent evt) {
-        EntityLivingBase entitylivingbase = evt.getEntityLiving();
-        CuriosAPI.getCuriosHandler(entitylivingbase).ifPresent(handler -> {
-            SortedMap<String, CurioStackHandler> curios = handler.getCurioMap();
-
-            for (String identifier : curios.keySet()) {
-                CurioStackHandler stackHandler = curios.get(identifier);
-
-                for (int i = 0; i < stackHandler.getSlots(); i++) {
-                    ItemStack stack = stackHandler.getStackInSlot(i);
-                    stack.inventoryTick(entitylivingbase.world, entitylivingbase, -1, false);
-                    LazyOptional<ICurio> currentCurio = CuriosAPI.getCurio(stack);
-                    currentCurio.ifPresent(curio -> curio.onCurioTick(identifier, entitylivingbase));
-
-                    if (!entitylivingbase.world.isRemote) {
-                        ItemStack prevStack = stackHandler.getPreviousStackInSlot(i);
-
-                        if (!ItemStack.areItemStacksEqual(stack, prevStack)) {
-                            LazyOptional<ICurio> prevCurio = CuriosAPI.getCurio(prevStack);
-                            boolean shouldSync = !stack.equals(prevStack, true);
-                            NBTTagCompound syncTag = new NBTTagCompound();
-
-                            if (currentCurio.map(curio -> curio.shouldSyncToTracking(identifier, entitylivingbase))
-                                    .orElse(false) || prevCurio.map(curio -> curio.shouldSyncToTracking(identifier, entitylivingbase))
-                                    .orElse(false) || shouldSync) {
-                                EntityTracker tracker = ((WorldServer) entitylivingbase.world).getEntityTracker();
-
-                                if (currentCurio.isPresent()) {
-                                    syncTag = currentCurio.map(ICurio::getSyncTag).orElse(syncTag);
-                                }
+    public void onWorldTick(TickEvent.WorldTickEvent evt) {
 
-                                for (EntityPlayer player : tracker.getTrackingPlayers(entitylivingbase)) {
+        if (evt.phase == TickEvent.Phase.END && !evt.world.isRemote) {
+            CurioHolderRegistry.tick(evt.world);
+        }
+    }
 
-                                    if (player instanceof EntityPlayerMP) {
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent evt) {
 
-                                        if (!syncTag.isEmpty()) {
-                                            NetworkHandler.INSTANCE.sendTo(new SPacketSyncContentsWithTag(entitylivingbase.getEntityId(), identifier, i, stack, syncTag),
-                                                    ((EntityPlayerMP) player).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
-                                        } else {
-                                            NetworkHandler.INSTANCE.sendTo(new SPacketSyncContents(entitylivingbase.getEntityId(), identifier, i, stack),
-                                                    ((EntityPlayerMP) player).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
-                                        }
-                                    }
-                                }
-                            }
-                            MinecraftForge.EVENT_BUS.post(new LivingCurioChangeEvent(entitylivingbase, identifier, i, prevStack, stack));
-                            prevCurio.ifPresent(curio -> {
-                                entitylivingbase.getAttributeMap().removeAttributeModifiers(curio.getAttributeModifiers(identifier));
-                                curio.onUnequipped(identifier, entitylivingbase);
-                            });
-                            currentCurio.ifPresent(curio -> {
-                                entitylivingbase.getAttributeMap().applyAttributeModifiers(curio.getAttributeModifiers(identifier));
-                                curio.onEquipped(identifier, entitylivingbase);
-                            });
-                            stackHandler.setPreviousStackInSlot(i, stack.isEmpty() ? ItemStack.EMPTY : stack.copy());
-
-                            if (entitylivingbase instanceof EntityPlayerMP) {
-
-                                if (!syncTag.isEmpty()) {
-                                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncContentsWithTag(entitylivingbase.getEntityId(), identifier, i, stack, syncTag),
-                                            ((EntityPlayerMP) entitylivingbase).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
-                                } else {
-                                    NetworkHandler.INSTANCE.sendTo(new SPacketSyncContents(entitylivingbase.getEntityId(), identifier, i, stack),
-                                            ((EntityPlayerMP) entitylivingbase).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        });
+        if (evt.phase == TickEvent.Phase.START) {
+            CurioTagIndex.refresh();
+        } else {
+            CurioPacketLimiter.tick();
+            CurioSyncScheduler.tick();
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload evt) {
+        CurioHolderRegistry.removeWorld(evt.getWorld());
     }
 }
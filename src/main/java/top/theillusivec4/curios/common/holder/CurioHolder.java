@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.EntityTracker;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.network.NetworkDirection;
+import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.capability.ICurio;
+import top.theillusivec4.curios.api.capability.ICurioItemHandler;
+import top.theillusivec4.curios.api.event.LivingCurioChangeEvent;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.common.CuriosConfig;
+import top.theillusivec4.curios.common.network.CurioSyncScheduler;
+import top.theillusivec4.curios.common.network.NetworkHandler;
+import top.theillusivec4.curios.common.network.server.sync.SPacketSyncBatch;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * An entity with a curio inventory that is ticked by {@link CurioHolderRegistry}
+ */
+public class CurioHolder {
+
+    /** How often, in ticks, occupied slots are fully compared to catch in-place changes to their ItemStacks*/
+    private static final int MUTATION_SCAN_INTERVAL = 20;
+
+    private final EntityLivingBase wearer;
+    private final ICurioItemHandler handler;
+    private final CurioTickScheduler scheduler;
+    private final BiConsumer<String, CurioStackHandler> updateAction = this::update;
+    private SPacketSyncBatch.Builder trackerChanges;
+    private SPacketSyncBatch.Builder ownerChanges;
+    /** Whether any of the changes for trackers this tick can be seen, either rendered or explicitly synced*/
+    private boolean visibleChanges;
+    /**
+     * Trackers that missed changes, mapped to true if they missed changes they could see and should receive
+     * the latest curios on the next far sync, or false if they only missed changes that cannot be seen
+     */
+    private final Map<EntityPlayerMP, Boolean> staleTrackers = new WeakHashMap<>();
+    private final Map<String, SyncLimiter> limiters = new HashMap<>();
+    private int ticks;
+    private final CurioModifierTracker modifiers = new CurioModifierTracker();
+
+    CurioHolder(EntityLivingBase wearer, ICurioItemHandler handler) {
+        this.wearer = wearer;
+        this.handler = handler;
+        this.scheduler = new CurioTickScheduler(handler, this::tickStack);
+
+        handler.forEachType((identifier, stackHandler) -> stackHandler.markAllDirty());
+    }
+
+    public EntityLivingBase getWearer() {
+        return wearer;
+    }
+
+    public ICurioItemHandler getHandler() {
+        return handler;
+    }
+
+    void tick() {
+        ticks++;
+        scheduler.tick();
+
+        if (!wearer.world.isRemote && !staleTrackers.isEmpty()
+                && (wearer.ticksExisted + wearer.getEntityId()) % CuriosConfig.COMMON.syncFarInterval.get() == 0) {
+            syncStaleTrackers();
+        }
+        handler.forEachType(this.updateAction);
+
+        if (!wearer.world.isRemote) {
+            modifiers.apply(wearer.getAttributeMap());
+            syncHeldChanges();
+            flushChanges();
+        }
+    }
+
+    /**
+     * Handles the dirty slots of one type, comparing them to their previous ItemStacks on the server
+     */
+    private void update(String identifier, CurioStackHandler stackHandler) {
+        boolean isRemote = wearer.world.isRemote;
+
+        if (!isRemote) {
+            boolean deepScan = (wearer.ticksExisted + wearer.getEntityId()) % MUTATION_SCAN_INTERVAL == 0;
+            stackHandler.detectMutations(deepScan);
+            modifiers.trim(stackHandler);
+        }
+
+        for (int i = stackHandler.nextDirtySlot(0); i >= 0; i = stackHandler.nextDirtySlot(i + 1)) {
+            stackHandler.clearDirty(i);
+            boolean changed = isRemote;
+
+            if (!isRemote) {
+                ItemStack stack = stackHandler.getStackInSlot(i);
+                ItemStack prevStack = stackHandler.getPreviousStackInSlot(i);
+
+                if (!ItemStack.areItemStacksEqual(stack, prevStack)) {
+                    changed = true;
+                    ICurio currentCurio = stackHandler.getCurio(i);
+                    ICurio prevCurio = stackHandler.getPreviousCurio(i);
+                    boolean shouldSync = !stack.equals(prevStack, true);
+                    boolean explicitSync = (currentCurio != null && currentCurio.shouldSyncToTracking(identifier, wearer))
+                            || (prevCurio != null && prevCurio.shouldSyncToTracking(identifier, wearer));
+                    boolean syncToTracking = explicitSync || shouldSync;
+                    boolean visible = syncToTracking && (explicitSync
+                            || (currentCurio != null && currentCurio.hasRender(identifier, wearer))
+                            || (prevCurio != null && prevCurio.hasRender(identifier, wearer)));
+                    MinecraftForge.EVENT_BUS.post(new LivingCurioChangeEvent(wearer, identifier, i, prevStack, stack));
+
+                    if (prevCurio != null) {
+                        prevCurio.onUnequipped(identifier, wearer);
+                    }
+                    modifiers.update(identifier, stackHandler, i, currentCurio);
+
+                    if (currentCurio != null) {
+                        currentCurio.onEquipped(identifier, wearer);
+                    }
+                    stackHandler.setPreviousStackInSlot(i, stack.isEmpty() ? ItemStack.EMPTY : stack.copy());
+
+                    if (syncToTracking || wearer instanceof EntityPlayerMP) {
+                        SyncLimiter limiter = limiters.computeIfAbsent(identifier, SyncLimiter::new);
+
+                        if (stack.getItem() != prevStack.getItem() || limiter.canSync(i, ticks)
+                                || (currentCurio != null && currentCurio.isSyncUrgent(identifier, wearer))) {
+                            boolean held = limiter.isHeld(i);
+                            syncToTracking |= limiter.isHeldForTrackers(i);
+                            visibleChanges |= visible || limiter.isHeldVisible(i);
+                            limiter.synced(i, ticks);
+                            addChange(identifier, i, held ? ItemStack.EMPTY : prevStack, stack, currentCurio,
+                                    syncToTracking);
+                        } else {
+                            limiter.hold(i, syncToTracking, visible);
+                        }
+                    }
+                }
+            }
+            schedule(identifier, stackHandler, i, changed);
+        }
+    }
+
+    /**
+     * Adds a slot change to the changes for trackers or for the owner
+     * A previous ItemStack that is empty always sends the full ItemStack, used for held changes as the clients may not
+     * have the last previous ItemStack
+     */
+    private void addChange(String identifier, int slot, ItemStack prevStack, ItemStack stack,
+                           @Nullable ICurio currentCurio, boolean syncToTracking) {
+
+        if (syncToTracking) {
+            NBTTagCompound syncTag = currentCurio != null && !CuriosAPI.isSharedCurio(stack.getItem())
+                    ? currentCurio.getSyncTag() : null;
+
+            if (syncTag != null && syncTag.isEmpty()) {
+                syncTag = null;
+            }
+
+            if (trackerChanges == null) {
+                trackerChanges = new SPacketSyncBatch.Builder(wearer.getEntityId());
+            }
+            trackerChanges.addChange(identifier, slot, prevStack, stack, syncTag, false);
+        } else {
+
+            if (ownerChanges == null) {
+                ownerChanges = new SPacketSyncBatch.Builder(wearer.getEntityId());
+            }
+            ownerChanges.addChange(identifier, slot, prevStack, stack, null, true);
+        }
+    }
+
+    /**
+     * Sends the latest state of slots with held changes once their sync interval has passed
+     */
+    private void syncHeldChanges() {
+
+        for (SyncLimiter limiter : limiters.values()) {
+
+            if (!limiter.hasHeld()) {
+                continue;
+            }
+            CurioStackHandler stackHandler = handler.getStackHandler(limiter.getIdentifier());
+
+            for (int i = limiter.nextHeld(0); i >= 0; i = limiter.nextHeld(i + 1)) {
+
+                if (stackHandler == null || i >= stackHandler.getSlots()) {
+                    limiter.synced(i, ticks);
+                } else if (limiter.canSync(i, ticks)) {
+                    ItemStack stack = stackHandler.getStackInSlot(i);
+                    boolean syncToTracking = limiter.isHeldForTrackers(i);
+                    visibleChanges |= limiter.isHeldVisible(i);
+                    limiter.synced(i, ticks);
+                    addChange(limiter.getIdentifier(), i, ItemStack.EMPTY, stack, stackHandler.getCurio(i), syncToTracking);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends all of the slot changes collected during this tick, one packet per recipient
+     * Changes for trackers are serialized once and shared by every tracker, with the owner receiving the same payload
+     * followed by any changes that are only meant for the owner
+     * The version is only moved on for changes that trackers can see, as changes only meant for the owner do not make
+     * the maps cached by trackers outdated
+     */
+    private void flushChanges() {
+
+        if (trackerChanges == null && ownerChanges == null) {
+            visibleChanges = false;
+            return;
+        }
+
+        if (trackerChanges != null) {
+            handler.markChanged();
+        }
+        int version = handler.getVersion();
+
+        if (trackerChanges != null) {
+            SPacketSyncBatch batch = trackerChanges.build(version);
+            EntityTracker tracker = ((WorldServer) wearer.world).getEntityTracker();
+
+            double nearDistance = CuriosConfig.COMMON.syncNearDistance.get();
+            nearDistance *= nearDistance;
+
+            for (EntityPlayer player : tracker.getTrackingPlayers(wearer)) {
+
+                if (player instanceof EntityPlayerMP) {
+                    EntityPlayerMP playerMP = (EntityPlayerMP) player;
+
+                    if (!visibleChanges) {
+                        staleTrackers.putIfAbsent(playerMP, false);
+                    } else if (wearer.isInvisibleToPlayer(playerMP) || wearer.getDistanceSq(playerMP) > nearDistance) {
+                        staleTrackers.put(playerMP, true);
+                    } else if (staleTrackers.remove(playerMP) != null) {
+                        CurioSyncScheduler.request(playerMP, wearer);
+                    } else {
+                        NetworkHandler.INSTANCE.sendTo(batch, playerMP.connection.getNetworkManager(),
+                                NetworkDirection.PLAY_TO_CLIENT);
+                    }
+                }
+            }
+
+            if (wearer instanceof EntityPlayerMP) {
+                SPacketSyncBatch ownerBatch = ownerChanges != null ? trackerChanges.buildWith(version, ownerChanges) : batch;
+                NetworkHandler.INSTANCE.sendTo(ownerBatch, ((EntityPlayerMP) wearer).connection.getNetworkManager(),
+                        NetworkDirection.PLAY_TO_CLIENT);
+            }
+        } else if (ownerChanges != null) {
+            NetworkHandler.INSTANCE.sendTo(ownerChanges.build(version), ((EntityPlayerMP) wearer).connection.getNetworkManager(),
+                    NetworkDirection.PLAY_TO_CLIENT);
+        }
+        trackerChanges = null;
+        ownerChanges = null;
+        visibleChanges = false;
+    }
+
+    /**
+     * Queues a full sync of the latest curios for trackers that missed changes they could see and can now see the
+     * wearer, coalescing all of the changes they missed into one update
+     * Trackers that only missed changes that cannot be seen are left stale until they receive a visible change, request
+     * a sync themselves or start tracking the wearer again
+     */
+    private void syncStaleTrackers() {
+        Set<EntityPlayerMP> trackingPlayers = ((WorldServer) wearer.world).getEntityTracker().getTrackingPlayers(wearer)
+                .stream().filter(player -> player instanceof EntityPlayerMP).map(player -> (EntityPlayerMP) player)
+                .collect(Collectors.toSet());
+        Iterator<Map.Entry<EntityPlayerMP, Boolean>> iterator = staleTrackers.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<EntityPlayerMP, Boolean> entry = iterator.next();
+            EntityPlayerMP player = entry.getKey();
+
+            if (!trackingPlayers.contains(player)) {
+                iterator.remove();
+            } else if (entry.getValue() && !wearer.isInvisibleToPlayer(player)) {
+                CurioSyncScheduler.request(player, wearer);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Schedules a slot to tick at the tick rate of its curio
+     * @param changed   True if the ItemStack in the slot changed, which ticks curios that only tick on change
+     */
+    private void schedule(String identifier, CurioStackHandler stackHandler, int slot, boolean changed) {
+        ItemStack stack = stackHandler.getStackInSlot(slot);
+        ICurio curio = stack.isEmpty() ? null : stackHandler.getCurio(slot);
+        int tickRate = stack.isEmpty() ? ICurio.TICK_NEVER : curio != null ? curio.getTickRate(identifier, wearer) : 1;
+        scheduler.schedule(identifier, stackHandler, slot, stack, curio, tickRate, changed);
+    }
+
+    private void tickStack(String identifier, CurioStackHandler stackHandler, int slot) {
+        stackHandler.getStackInSlot(slot).inventoryTick(wearer.world, wearer, -1, false);
+        ICurio curio = stackHandler.getCurio(slot);
+
+        if (curio != null) {
+            curio.onCurioTick(identifier, wearer);
+        }
+    }
+}
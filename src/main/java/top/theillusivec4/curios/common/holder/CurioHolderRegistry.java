@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import top.theillusivec4.curios.api.CuriosAPI;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the entities in each world that have a curio inventory so that only those entities are ticked
+ * Each world's holders are only ever accessed from the thread that ticks that world
+ */
+public class CurioHolderRegistry {
+
+    private static final Map<IWorld, WorldHolders> WORLDS = new ConcurrentHashMap<>();
+
+    /**
+     * Starts ticking the entity in its current world if it has a curio inventory
+     * @param livingBase    The entity to add
+     */
+    public static void add(EntityLivingBase livingBase) {
+        CuriosAPI.getCuriosHandler(livingBase).ifPresent(handler ->
+                WORLDS.computeIfAbsent(livingBase.world, k -> new WorldHolders())
+                        .add(new CurioHolder(livingBase, handler)));
+    }
+
+    /**
+     * Stops ticking the entity in its current world
+     * @param livingBase    The entity to remove
+     */
+    public static void remove(EntityLivingBase livingBase) {
+        WorldHolders holders = WORLDS.get(livingBase.world);
+
+        if (holders != null) {
+            holders.remove(livingBase);
+        }
+    }
+
+    /**
+     * Forgets all of the holders in the world, used when the world is unloaded
+     * @param world The world to remove
+     */
+    public static void removeWorld(IWorld world) {
+        WORLDS.remove(world);
+    }
+
+    /**
+     * @param livingBase    The entity to look up
+     * @return  The holder for the entity in its current world, or null if it is not being ticked
+     */
+    @Nullable
+    public static CurioHolder get(EntityLivingBase livingBase) {
+        WorldHolders holders = WORLDS.get(livingBase.world);
+        return holders != null ? holders.holders.get(livingBase) : null;
+    }
+
+    /**
+     * Ticks the curios of every holder in the world, dropping any holders that have died, been removed, or moved to
+     * another world
+     * @param world The world being ticked
+     */
+    public static void tick(World world) {
+        WorldHolders holders = WORLDS.get(world);
+
+        if (holders != null) {
+            holders.tick(world);
+        }
+    }
+
+    private static class WorldHolders {
+
+        final Map<EntityLivingBase, CurioHolder> holders = new LinkedHashMap<>();
+        CurioHolder[] ticking = new CurioHolder[0];
+        boolean changed = false;
+
+        void add(CurioHolder holder) {
+            holders.put(holder.getWearer(), holder);
+            changed = true;
+        }
+
+        void remove(EntityLivingBase livingBase) {
+
+            if (holders.remove(livingBase) != null) {
+                changed = true;
+            }
+        }
+
+        void tick(World world) {
+
+            if (changed) {
+                ticking = holders.values().toArray(new CurioHolder[0]);
+                changed = false;
+            }
+
+            for (CurioHolder holder : ticking) {
+                EntityLivingBase wearer = holder.getWearer();
+
+                if (!wearer.isAlive() || wearer.world != world) {
+
+                    if (holders.get(wearer) == holder) {
+                        remove(wearer);
+                    }
+                } else if (holders.get(wearer) == holder) {
+                    holder.tick();
+                }
+            }
+        }
+    }
+}
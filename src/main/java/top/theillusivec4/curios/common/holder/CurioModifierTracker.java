@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import net.minecraft.entity.ai.attributes.AbstractAttributeMap;
+import net.minecraft.entity.ai.attributes.AttributeModifier;
+import top.theillusivec4.curios.api.capability.ICurio;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the attribute modifier changes of a holder's curio slots during a tick so that they can be applied at once
+ * The modifiers applied for each slot are kept on its {@link CurioStackHandler}, so they stay known when the wearer
+ * gets a new holder, for example after changing dimension
+ */
+class CurioModifierTracker {
+
+    /** Modifiers to remove from and apply to the wearer at the end of this tick*/
+    private Multimap<String, AttributeModifier> removed;
+    private Multimap<String, AttributeModifier> added;
+
+    /**
+     * Queues the removal of the modifiers applied for slots that the handler no longer has
+     */
+    void trim(CurioStackHandler stackHandler) {
+        List<Multimap<String, AttributeModifier>> applied = stackHandler.getAppliedModifiers();
+
+        while (applied.size() > stackHandler.getSlots()) {
+
+            for (Map.Entry<String, AttributeModifier> entry : applied.remove(applied.size() - 1).entries()) {
+                queueRemoved(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Compares the modifiers of the new curio in a slot to the modifiers that were applied for the slot and queues only
+     * the difference, so the modifiers of a curio are only requested when its slot changes
+     */
+    void update(String identifier, CurioStackHandler stackHandler, int slot, @Nullable ICurio currentCurio) {
+        this.trim(stackHandler);
+        List<Multimap<String, AttributeModifier>> applied = stackHandler.getAppliedModifiers();
+
+        while (applied.size() <= slot) {
+            applied.add(ImmutableMultimap.of());
+        }
+        Multimap<String, AttributeModifier> prevModifiers = applied.get(slot);
+        Multimap<String, AttributeModifier> modifiers = currentCurio != null
+                ? currentCurio.getAttributeModifiers(identifier) : ImmutableMultimap.of();
+
+        for (Map.Entry<String, AttributeModifier> entry : prevModifiers.entries()) {
+
+            if (!containsModifier(modifiers, entry.getKey(), entry.getValue())) {
+                queueRemoved(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (Map.Entry<String, AttributeModifier> entry : modifiers.entries()) {
+
+            if (!containsModifier(prevModifiers, entry.getKey(), entry.getValue())) {
+
+                if (added == null) {
+                    added = HashMultimap.create();
+                }
+                added.put(entry.getKey(), entry.getValue());
+            }
+        }
+        applied.set(slot, modifiers.isEmpty() ? ImmutableMultimap.of() : ImmutableMultimap.copyOf(modifiers));
+    }
+
+    private void queueRemoved(String attribute, AttributeModifier modifier) {
+
+        if (removed == null) {
+            removed = HashMultimap.create();
+        }
+        removed.put(attribute, modifier);
+    }
+
+    /**
+     * AttributeModifier#equals only compares ids, so the amount and operation are compared as well to catch modifiers
+     * that changed their values
+     */
+    private static boolean containsModifier(Multimap<String, AttributeModifier> modifiers, String attribute,
+                                            AttributeModifier modifier) {
+
+        for (AttributeModifier other : modifiers.get(attribute)) {
+
+            if (other.getID().equals(modifier.getID()) && other.getAmount() == modifier.getAmount()
+                    && other.getOperation() == modifier.getOperation()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies all modifier changes of this tick at once
+     * Removals are applied first so that a changed modifier with the same id is replaced
+     */
+    void apply(AbstractAttributeMap attributeMap) {
+
+        if (removed != null) {
+            attributeMap.removeAttributeModifiers(removed);
+            removed = null;
+        }
+
+        if (added != null) {
+            attributeMap.applyAttributeModifiers(added);
+            added = null;
+        }
+    }
+
+    /**
+     * @return  The modifiers queued for removal this tick, or an empty multimap if there are none
+     */
+    Multimap<String, AttributeModifier> getRemoved() {
+        return removed != null ? removed : ImmutableMultimap.of();
+    }
+
+    /**
+     * @return  The modifiers queued to be applied this tick, or an empty multimap if there are none
+     */
+    Multimap<String, AttributeModifier> getAdded() {
+        return added != null ? added : ImmutableMultimap.of();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import net.minecraft.item.ItemStack;
+import top.theillusivec4.curios.api.capability.ICurio;
+import top.theillusivec4.curios.api.capability.ICurioItemHandler;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Schedules the curio slots of a holder to tick at the tick rates of their curios
+ * Slots with a positive tick rate are kept in a {@link CurioTickWheel}, while slots that only tick on change keep an
+ * entry outside of the wheel with a copy of the ItemStack after their last tick
+ */
+class CurioTickScheduler {
+
+    private final ICurioItemHandler handler;
+    private final SlotTicker ticker;
+    private final CurioTickWheel wheel = new CurioTickWheel();
+    private final Map<String, CurioTickWheel.Entry[]> scheduled = new HashMap<>();
+    private final Consumer<CurioTickWheel.Entry> tickAction = this::tickSlot;
+
+    CurioTickScheduler(ICurioItemHandler handler, SlotTicker ticker) {
+        this.handler = handler;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Schedules a slot to tick at the given tick rate
+     * The existing entry is kept if the slot still holds the same ItemStack and curio at the same tick rate, so that
+     * changes made in place, such as a curio damaging itself when it ticks, do not restart its period
+     * A curio that ticks on change is not ticked again for changes it made to its own ItemStack while ticking, so a
+     * curio that updates its NBT when it ticks does not end up ticking every tick
+     * @param stack     The ItemStack in the slot
+     * @param curio     The curio of the ItemStack, or null if it has none
+     * @param tickRate  The tick rate of the curio, see {@link ICurio#getTickRate}
+     * @param changed   True if the ItemStack in the slot changed, which ticks curios that only tick on change
+     */
+    void schedule(String identifier, CurioStackHandler stackHandler, int slot, ItemStack stack, @Nullable ICurio curio,
+                  int tickRate, boolean changed) {
+        CurioTickWheel.Entry[] entries = scheduled.get(identifier);
+
+        if (entries == null || entries.length <= slot) {
+            int length = Math.max(slot + 1, stackHandler.getSlots());
+            entries = entries == null ? new CurioTickWheel.Entry[length] : Arrays.copyOf(entries, length);
+            scheduled.put(identifier, entries);
+        }
+        CurioTickWheel.Entry previous = entries[slot];
+
+        if (previous != null) {
+
+            if (!previous.cancelled && previous.stackHandler == stackHandler && previous.stack == stack
+                    && previous.curio == curio && previous.period == tickRate) {
+
+                if (tickRate == ICurio.TICK_ON_CHANGE && changed
+                        && !ItemStack.areItemStacksEqual(stack, previous.tickedStack)) {
+                    tickOnChange(previous);
+                }
+                return;
+            }
+            wheel.cancel(previous);
+            entries[slot] = null;
+        }
+
+        if (tickRate > 0) {
+            entries[slot] = wheel.schedule(identifier, stackHandler, slot, stack, curio, tickRate);
+        } else if (tickRate == ICurio.TICK_ON_CHANGE) {
+            CurioTickWheel.Entry entry = new CurioTickWheel.Entry(identifier, stackHandler, slot, stack, curio,
+                    tickRate, 0);
+            entries[slot] = entry;
+
+            if (changed) {
+                tickOnChange(entry);
+            }
+        }
+    }
+
+    /**
+     * Ticks every slot that is due this tick
+     */
+    void tick() {
+        wheel.tick(tickAction);
+    }
+
+    private void tickSlot(CurioTickWheel.Entry entry) {
+        CurioStackHandler stackHandler = entry.stackHandler;
+
+        if (handler.getStackHandler(entry.identifier) != stackHandler || entry.slot >= stackHandler.getSlots()) {
+            wheel.cancel(entry);
+            return;
+        }
+        ticker.tick(entry.identifier, stackHandler, entry.slot);
+    }
+
+    private void tickOnChange(CurioTickWheel.Entry entry) {
+        ticker.tick(entry.identifier, entry.stackHandler, entry.slot);
+        entry.tickedStack = entry.stack.copy();
+    }
+
+    interface SlotTicker {
+
+        void tick(String identifier, CurioStackHandler stackHandler, int slot);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import net.minecraft.item.ItemStack;
+import top.theillusivec4.curios.api.capability.ICurio;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel for scheduling curio slots to tick at fixed intervals
+ * Slots that tick every tick are kept in their own list, while other slots are only visited on the ticks they are due
+ */
+class CurioTickWheel {
+
+    private static final int SIZE = 64;
+    private static final int MASK = SIZE - 1;
+
+    private final List<Entry> everyTick = new ArrayList<>();
+    private final List<List<Entry>> buckets = new ArrayList<>(SIZE);
+    private List<Entry> spare = new ArrayList<>();
+    private boolean hasCancelled = false;
+    private long currentTick = 0;
+
+    CurioTickWheel() {
+
+        for (int i = 0; i < SIZE; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules a slot to tick every period, starting on the next tick
+     * @param identifier    The identifier of the slot type
+     * @param stackHandler  The handler containing the slot
+     * @param slot          The slot index
+     * @param stack         The ItemStack in the slot when it was scheduled
+     * @param curio         The curio of the ItemStack, or null if it has none
+     * @param period        The number of ticks between each tick of the slot, must be positive
+     * @return  The scheduled entry, used for cancelling
+     */
+    Entry schedule(String identifier, CurioStackHandler stackHandler, int slot, ItemStack stack, @Nullable ICurio curio,
+                   int period) {
+        Entry entry = new Entry(identifier, stackHandler, slot, stack, curio, period, currentTick + 1);
+
+        if (period == 1) {
+            everyTick.add(entry);
+        } else {
+            buckets.get((int) (entry.due & MASK)).add(entry);
+        }
+        return entry;
+    }
+
+    void cancel(Entry entry) {
+        entry.cancelled = true;
+
+        if (entry.period == 1) {
+            hasCancelled = true;
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick and passes every entry that is due to the action
+     * Cancelled entries are dropped as they are encountered
+     * @param action    The action to run for each due entry
+     */
+    void tick(Consumer<Entry> action) {
+        currentTick++;
+
+        for (int i = 0; i < everyTick.size(); i++) {
+            Entry entry = everyTick.get(i);
+
+            if (!entry.cancelled) {
+                action.accept(entry);
+            }
+        }
+
+        if (hasCancelled) {
+            everyTick.removeIf(entry -> entry.cancelled);
+            hasCancelled = false;
+        }
+        int index = (int) (currentTick & MASK);
+        List<Entry> bucket = buckets.get(index);
+
+        if (!bucket.isEmpty()) {
+            buckets.set(index, spare);
+
+            for (Entry entry : bucket) {
+
+                if (entry.cancelled) {
+                    continue;
+                }
+
+                if (entry.due == currentTick) {
+                    action.accept(entry);
+
+                    if (!entry.cancelled) {
+                        entry.due += entry.period;
+                        buckets.get((int) (entry.due & MASK)).add(entry);
+                    }
+                } else {
+                    buckets.get(index).add(entry);
+                }
+            }
+            bucket.clear();
+            spare = bucket;
+        }
+    }
+
+    static class Entry {
+
+        final String identifier;
+        final CurioStackHandler stackHandler;
+        final int slot;
+        final ItemStack stack;
+        final ICurio curio;
+        final int period;
+        long due;
+        boolean cancelled = false;
+        /** For slots that tick on change, a copy of the ItemStack after its last tick, which is not in the wheel*/
+        ItemStack tickedStack = ItemStack.EMPTY;
+
+        Entry(String identifier, CurioStackHandler stackHandler, int slot, ItemStack stack, @Nullable ICurio curio,
+              int period, long due) {
+            this.identifier = identifier;
+            this.stackHandler = stackHandler;
+            this.slot = slot;
+            this.stack = stack;
+            this.curio = curio;
+            this.period = period;
+            this.due = due;
+        }
+    }
+}
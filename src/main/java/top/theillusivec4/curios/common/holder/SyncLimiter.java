@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import top.theillusivec4.curios.common.CuriosConfig;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps track of when the slots of a curio type were last synced and which slots have changes held back
+ */
+class SyncLimiter {
+
+    private final String identifier;
+    /** The minimum number of ticks between syncs of a slot*/
+    private final IntSupplier interval;
+    private int[] lastSynced = new int[0];
+    private final BitSet held = new BitSet();
+    private final BitSet heldForTrackers = new BitSet();
+    /** Held slots with a change that trackers can see, either rendered or explicitly synced*/
+    private final BitSet heldVisible = new BitSet();
+
+    SyncLimiter(String identifier) {
+        this(identifier, () -> CuriosConfig.getSyncInterval(identifier));
+    }
+
+    SyncLimiter(String identifier, IntSupplier interval) {
+        this.identifier = identifier;
+        this.interval = interval;
+    }
+
+    String getIdentifier() {
+        return identifier;
+    }
+
+    boolean canSync(int slot, int ticks) {
+        return slot >= lastSynced.length || ticks - lastSynced[slot] >= interval.getAsInt();
+    }
+
+    boolean hasHeld() {
+        return !held.isEmpty();
+    }
+
+    /**
+     * @return  The first held slot at or after the given slot, or -1 if there is none
+     */
+    int nextHeld(int slot) {
+        return held.nextSetBit(slot);
+    }
+
+    boolean isHeld(int slot) {
+        return held.get(slot);
+    }
+
+    boolean isHeldForTrackers(int slot) {
+        return heldForTrackers.get(slot);
+    }
+
+    boolean isHeldVisible(int slot) {
+        return heldVisible.get(slot);
+    }
+
+    void hold(int slot, boolean forTrackers, boolean visible) {
+        held.set(slot);
+
+        if (forTrackers) {
+            heldForTrackers.set(slot);
+        }
+
+        if (visible) {
+            heldVisible.set(slot);
+        }
+    }
+
+    void synced(int slot, int ticks) {
+
+        if (slot >= lastSynced.length) {
+            lastSynced = Arrays.copyOf(lastSynced, slot + 1);
+        }
+        lastSynced[slot] = ticks;
+        held.clear(slot);
+        heldForTrackers.clear(slot);
+        heldVisible.clear(slot);
+    }
+}
@@ -22,24 +22,24 @@ package top.theillusivec4.curios.common.inventory;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.*;
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.MathHelper;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.fml.network.NetworkDirection;
 import top.theillusivec4.curios.api.CuriosAPI;
 import top.theillusivec4.curios.api.capability.ICurioItemHandler;
 import top.theillusivec4.curios.api.inventory.CurioStackHandler;
 import top.theillusivec4.curios.api.inventory.SlotCurio;
 import top.theillusivec4.curios.common.network.NetworkHandler;
 import top.theillusivec4.curios.common.network.client.CPacketScrollCurios;
-import top.theillusivec4.curios.common.network.server.SPacketScrollCurios;
 
 import javax.annotation.Nonnull;
-import java.util.SortedMap;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 public class ContainerCurios extends Container {
 
@@ -50,6 +50,9 @@ public class ContainerCurios extends Container {
     private static final EntityEquipmentSlot[] VALID_EQUIPMENT_SLOTS = new EntityEquipmentSlot[] {EntityEquipmentSlot.HEAD,
             EntityEquipmentSlot.CHEST, EntityEquipmentSlot.LEGS, EntityEquipmentSlot.FEET};
 
+    private static final long SCROLL_SEND_INTERVAL = 100;
+    private static final int VIEW_SLOTS = 8;
+
     public final LazyOptional<ICurioItemHandler> curios;
 
     private final EntityPlayer player;
@@ -58,6 +61,29 @@ public class ContainerCurios extends Container {
     private InventoryCrafting craftMatrix = new InventoryCrafting(this, 2, 2);
     private InventoryCraftResult craftResult = new InventoryCraftResult();
     private int lastScrollIndex;
+    /** Scroll index that has been shown on the client but not sent to the server yet, or -1 if there is none*/
+    private int pendingScrollIndex = -1;
+    private long lastScrollSent;
+    /** The sequence number of the last scroll index sent to the server and of the last one it has confirmed*/
+    private int sentScrollSequence;
+    private int confirmedScrollSequence;
+
+    private final SlotCurio[] viewSlots = new SlotCurio[VIEW_SLOTS];
+    /** The handler, index and identifier of every curio slot that can be shown, in display order*/
+    private CurioStackHandler[] visibleHandlers = new CurioStackHandler[0];
+    private int[] visibleIndices = new int[0];
+    private String[] visibleIdentifiers = new String[0];
+    private int visibleSlots;
+    /** The handlers, sizes and hidden states of each type that the visible slots were built from*/
+    private CurioStackHandler[] layoutHandlers = new CurioStackHandler[0];
+    private int[] layoutSizes = new int[0];
+    private boolean[] layoutHidden = new boolean[0];
+    /** The position in the layout arrays while visiting the types of the handler*/
+    private int layoutCursor;
+    private boolean layoutChanged;
+    private final BiConsumer<String, CurioStackHandler> checkLayoutAction = this::checkLayout;
+    private final BiConsumer<String, CurioStackHandler> recordLayoutAction = this::recordLayout;
+    private final BiConsumer<String, CurioStackHandler> bindVisibleAction = this::bindVisible;
 
     public ContainerCurios(InventoryPlayer playerInventory, EntityPlayer playerIn) {
         this.player = playerIn;
@@ -120,78 +146,181 @@ public class ContainerCurios extends Container {
             }
         });
 
-        this.curios.ifPresent(curios -> {
-            SortedMap<String, CurioStackHandler> curioMap = curios.getCurioMap();
-            int slots = 0;
-            int yOffset = 12;
+        for (int i = 0; i < VIEW_SLOTS; i++) {
+            this.viewSlots[i] = new SlotCurio(player, null, 0, null, -18, 12 + i * 18);
+            this.addSlot(this.viewSlots[i]);
+        }
+        this.scrollToIndex(0);
+    }
 
-            for (String identifier : curioMap.keySet()) {
-                CurioStackHandler stackHandler = curioMap.get(identifier);
+    /**
+     * Binds the view slots to the visible curio slots starting at the given index
+     */
+    public void scrollToIndex(int indexIn) {
+        this.curios.ifPresent(curios -> {
+            this.updateLayout(curios);
+            int index = MathHelper.clamp(indexIn, 0, Math.max(0, this.visibleSlots - VIEW_SLOTS));
 
-                if (!stackHandler.isHidden()) {
+            for (int i = 0; i < VIEW_SLOTS; i++) {
+                int visibleIndex = index + i;
 
-                    for (int i = 0; i < stackHandler.getSlots() && slots < 8; i++) {
-                        this.addSlot(new SlotCurio(player, stackHandler, i, identifier,-18, yOffset));
-                        yOffset += 18;
-                        slots++;
-                    }
+                if (visibleIndex < this.visibleSlots) {
+                    this.viewSlots[i].rebind(this.visibleHandlers[visibleIndex], this.visibleIndices[visibleIndex],
+                            this.visibleIdentifiers[visibleIndex]);
+                } else {
+                    this.viewSlots[i].rebind(null, 0, null);
                 }
             }
+            lastScrollIndex = index;
         });
-        this.scrollToIndex(0);
     }
 
-    public void scrollToIndex(int indexIn) {
-        this.curios.ifPresent(curios -> {
-            SortedMap<String, CurioStackHandler> curioMap = curios.getCurioMap();
-            int slots = 0;
-            int yOffset = 12;
-            int index = 0;
-            this.inventorySlots.subList(46, this.inventorySlots.size()).clear();
-            this.inventoryItemStacks.subList(46, this.inventoryItemStacks.size()).clear();
-
-            for (String identifier : curioMap.keySet()) {
-                CurioStackHandler stackHandler = curioMap.get(identifier);
-
-                if (!stackHandler.isHidden()) {
-
-                    for (int i = 0; i < stackHandler.getSlots() && slots < 8; i++) {
-
-                        if (index >= indexIn) {
-                            this.addSlot(new SlotCurio(player, stackHandler, i, identifier,-18, yOffset));
-                            yOffset += 18;
-                            slots++;
-                        }
-                        index++;
-                    }
-                }
-            }
+    /**
+     * Rebuilds the list of visible curio slots if the types, handlers, sizes or hidden states of the handler have
+     * changed
+     * Only visits the types of the handler when nothing has changed
+     */
+    private void updateLayout(ICurioItemHandler curios) {
+        int types = curios.getCurioMap().size();
+        this.layoutCursor = 0;
+        this.layoutChanged = this.layoutHandlers.length != types;
+
+        if (!this.layoutChanged) {
+            curios.forEachType(this.checkLayoutAction);
+        }
+
+        if (!this.layoutChanged) {
+            return;
+        }
+        this.layoutHandlers = new CurioStackHandler[types];
+        this.layoutSizes = new int[types];
+        this.layoutHidden = new boolean[types];
+        this.layoutCursor = 0;
+        this.visibleSlots = 0;
+        curios.forEachType(this.recordLayoutAction);
+        this.visibleHandlers = new CurioStackHandler[this.visibleSlots];
+        this.visibleIndices = new int[this.visibleSlots];
+        this.visibleIdentifiers = new String[this.visibleSlots];
+        this.layoutCursor = 0;
+        curios.forEachType(this.bindVisibleAction);
+    }
+
+    private void checkLayout(String identifier, CurioStackHandler stackHandler) {
+        int type = this.layoutCursor++;
+
+        if (!this.layoutChanged && type < this.layoutHandlers.length) {
+            this.layoutChanged = this.layoutHandlers[type] != stackHandler
+                    || this.layoutSizes[type] != stackHandler.getSlots()
+                    || this.layoutHidden[type] != stackHandler.isHidden();
+        }
+    }
+
+    private void recordLayout(String identifier, CurioStackHandler stackHandler) {
+        int type = this.layoutCursor++;
+        this.layoutHandlers[type] = stackHandler;
+        this.layoutSizes[type] = stackHandler.getSlots();
+        this.layoutHidden[type] = stackHandler.isHidden();
 
-            if (!this.isLocalWorld) {
-                NetworkHandler.INSTANCE.sendTo(new SPacketScrollCurios(this.windowId, indexIn),
-                        ((EntityPlayerMP)this.player).connection.getNetworkManager(), NetworkDirection.PLAY_TO_CLIENT);
+        if (!stackHandler.isHidden()) {
+            this.visibleSlots += stackHandler.getSlots();
+        }
+    }
+
+    private void bindVisible(String identifier, CurioStackHandler stackHandler) {
+
+        if (!stackHandler.isHidden()) {
+
+            for (int i = 0; i < stackHandler.getSlots(); i++) {
+                int index = this.layoutCursor++;
+                this.visibleHandlers[index] = stackHandler;
+                this.visibleIndices[index] = i;
+                this.visibleIdentifiers[index] = identifier;
             }
-            lastScrollIndex = indexIn;
-        });
+        }
     }
 
     public void scrollTo(float pos) {
-        this.curios.ifPresent(curios -> {
-            int k = (curios.getSlots() - 8);
-            int j = (int)((double)(pos * (float)k) + 0.5D);
+        int k = this.getMaxScrollIndex();
+        int j = MathHelper.clamp((int)((double)(pos * (float)k) + 0.5D), 0, k);
 
-            if (j < 0) {
-                j = 0;
-            }
+        if (j != this.lastScrollIndex && this.isLocalWorld) {
+            this.scrollToIndex(j);
+            this.pendingScrollIndex = j;
+            this.sendPendingScroll(false);
+        }
+    }
 
-            if (j == this.lastScrollIndex) {
-                return;
+    /**
+     * Scrolling is shown on the client right away and sent to the server at most once every
+     * {@link #SCROLL_SEND_INTERVAL} milliseconds, with only the latest index being sent
+     * The pending index must be sent before any slot click so that the server resolves the click to the same slot
+     * @param force True to send the pending index regardless of when the last one was sent
+     */
+    public void sendPendingScroll(boolean force) {
+
+        if (this.pendingScrollIndex >= 0) {
+            long time = Util.milliTime();
+
+            if (force || time - this.lastScrollSent >= SCROLL_SEND_INTERVAL) {
+                this.sentScrollSequence++;
+                NetworkHandler.INSTANCE.sendToServer(new CPacketScrollCurios(this.windowId, this.sentScrollSequence,
+                        this.pendingScrollIndex));
+                this.pendingScrollIndex = -1;
+                this.lastScrollSent = time;
             }
+        }
+    }
 
-            if (this.isLocalWorld) {
-                NetworkHandler.INSTANCE.sendToServer(new CPacketScrollCurios(this.windowId, j));
-            }
-        });
+    /**
+     * @return  The index of the first visible curio slot bound to the view slots
+     */
+    public int getScrollIndex() {
+        return this.lastScrollIndex;
+    }
+
+    /**
+     * Called on the client when the server has bound its view slots for a scroll index that was sent
+     * Once the latest sent index is confirmed, the client moves to the server's index in case the server clamped or
+     * rejected it
+     * @param sequence  The sequence number of the latest scroll index the server has received
+     * @param index     The scroll index of the server
+     */
+    public void confirmScroll(int sequence, int index) {
+        this.confirmedScrollSequence = sequence;
+
+        if (this.isScrollConfirmed() && index != this.lastScrollIndex) {
+            this.scrollToIndex(index);
+        }
+    }
+
+    /**
+     * @return  True if the server's view slots are bound to the same curio slots as the client's
+     */
+    private boolean isScrollConfirmed() {
+        return this.pendingScrollIndex < 0 && this.confirmedScrollSequence == this.sentScrollSequence;
+    }
+
+    /**
+     * Slot updates from the server for the view slots are dropped while a scroll is unconfirmed, as the server built
+     * them for its previous binding and they would be written to other curio slots on the client
+     * The curio slots themselves are kept in sync separately from the container
+     */
+    @OnlyIn(Dist.CLIENT)
+    @Override
+    public void putStackInSlot(int slotID, ItemStack stack) {
+
+        if (this.isScrollConfirmed() || !(this.getSlot(slotID) instanceof SlotCurio)) {
+            super.putStackInSlot(slotID, stack);
+        }
+    }
+
+    @OnlyIn(Dist.CLIENT)
+    @Override
+    public void setAll(List<ItemStack> stacks) {
+
+        for (int i = 0; i < stacks.size(); i++) {
+            this.putStackInSlot(i, stacks.get(i));
+        }
     }
 
     @Override
@@ -210,13 +339,17 @@ public class ContainerCurios extends Container {
     }
 
     public boolean canScroll() {
-        return this.curios.map(curios -> {
+        return this.getMaxScrollIndex() > 0;
+    }
 
-            if (curios.getSlots() > 8) {
-                return 1;
-            }
-            return 0;
-        }).orElse(0) == 1;
+    /**
+     * @return  The highest scroll index, at which the last visible curio slot is bound to the last view slot
+     */
+    public int getMaxScrollIndex() {
+        return this.curios.map(curios -> {
+            this.updateLayout(curios);
+            return Math.max(0, this.visibleSlots - VIEW_SLOTS);
+        }).orElse(0);
     }
 
     @Override
@@ -30,49 +30,58 @@ import net.minecraft.potion.PotionEffect;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import top.theillusivec4.curios.Curios;
+import top.theillusivec4.curios.api.CuriosAPI;
 import top.theillusivec4.curios.api.capability.ICurio;
 import top.theillusivec4.curios.client.render.ModelAmulet;
 import top.theillusivec4.curios.common.capability.CapCurioItem;
 
 public class ItemAmulet extends Item implements ICurio {
 
+    private static final ResourceLocation AMULET_TEXTURE = new ResourceLocation(Curios.MODID, "textures/entity/amulet.png");
+
+    private Object model;
+
+    private final ICapabilityProvider provider;
+
     public ItemAmulet() {
         super(new Item.Properties().group(ItemGroup.TOOLS).maxStackSize(1).defaultMaxDamage(0));
         this.setRegistryName(Curios.MODID, "amulet");
+        CuriosAPI.registerCurio(this, this);
+        this.provider = CapCurioItem.createSharedProvider(this);
     }
 
     @Override
     public ICapabilityProvider initCapabilities(ItemStack stack, NBTTagCompound unused) {
-        return CapCurioItem.createProvider(new ICurio() {
-
-            private final ResourceLocation AMULET_TEXTURE = new ResourceLocation(Curios.MODID, "textures/entity/amulet.png");
+        return this.provider;
+    }
 
-            private Object model;
+    @Override
+    public int getTickRate(String identifier, EntityLivingBase entityLivingBase) {
+        return 40;
+    }
 
-            @Override
-            public void onCurioTick(String identifier, EntityLivingBase entityLivingBase) {
+    @Override
+    public void onCurioTick(String identifier, EntityLivingBase entityLivingBase) {
 
-                if (!entityLivingBase.getEntityWorld().isRemote && entityLivingBase.ticksExisted % 40 == 0) {
-                    entityLivingBase.addPotionEffect(new PotionEffect(MobEffects.REGENERATION, 80, 0, true, true));
-                }
-            }
+        if (!entityLivingBase.getEntityWorld().isRemote) {
+            entityLivingBase.addPotionEffect(new PotionEffect(MobEffects.REGENERATION, 80, 0, true, true));
+        }
+    }
 
-            @Override
-            public boolean hasRender(String identifier, EntityLivingBase entityLivingBase) {
-                return true;
-            }
+    @Override
+    public boolean hasRender(String identifier, EntityLivingBase entityLivingBase) {
+        return true;
+    }
 
-            @Override
-            public void doRender(String identifier, EntityLivingBase entitylivingbaseIn, float limbSwing, float limbSwingAmount, float partialTicks, float ageInTicks, float netHeadYaw, float headPitch, float scale) {
-                Minecraft.getInstance().getTextureManager().bindTexture(AMULET_TEXTURE);
-                ICurio.RenderHelper.rotateIfSneaking(entitylivingbaseIn);
+    @Override
+    public void doRender(String identifier, EntityLivingBase entitylivingbaseIn, float limbSwing, float limbSwingAmount, float partialTicks, float ageInTicks, float netHeadYaw, float headPitch, float scale) {
+        Minecraft.getInstance().getTextureManager().bindTexture(AMULET_TEXTURE);
+        ICurio.RenderHelper.rotateIfSneaking(entitylivingbaseIn);
 
-                if (!(this.model instanceof ModelAmulet)) {
-                    this.model = new ModelAmulet();
-                }
-                ((ModelAmulet) model).render(entitylivingbaseIn, limbSwing, limbSwingAmount, ageInTicks, netHeadYaw, headPitch, scale);
-            }
-        });
+        if (!(this.model instanceof ModelAmulet)) {
+            this.model = new ModelAmulet();
+        }
+        ((ModelAmulet) model).render(entitylivingbaseIn, limbSwing, limbSwingAmount, ageInTicks, netHeadYaw, headPitch, scale);
     }
 
     @Override
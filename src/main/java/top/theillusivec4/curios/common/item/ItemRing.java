@@ -19,7 +19,7 @@
 
 package top.theillusivec4.curios.common.item;
 
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.SharedMonsterAttributes;
@@ -44,45 +44,50 @@ public class ItemRing extends Item implements ICurio {
 
     private static final UUID SPEED_UUID = UUID.fromString("8b7c8fcd-89bc-4794-8bb9-eddeb32753a5");
     private static final UUID ARMOR_UUID = UUID.fromString("38faf191-bf78-4654-b349-cc1f4f1143bf");
+    private static final Multimap<String, AttributeModifier> MODIFIERS = ImmutableMultimap.of(
+            SharedMonsterAttributes.MOVEMENT_SPEED.getName(), new AttributeModifier(SPEED_UUID, "Speed bonus", 0.1, 2),
+            SharedMonsterAttributes.ARMOR.getName(), new AttributeModifier(ARMOR_UUID, "Armor bonus", 2, 0));
+
+    private final ICapabilityProvider provider;
 
     public ItemRing() {
         super(new Item.Properties().group(ItemGroup.TOOLS).maxStackSize(1).defaultMaxDamage(0));
         this.setRegistryName(Curios.MODID, "ring");
+        CuriosAPI.registerCurio(this, this);
+        this.provider = CapCurioItem.createSharedProvider(this);
     }
 
     @Override
     public ICapabilityProvider initCapabilities(ItemStack stack, NBTTagCompound unused) {
-        return CapCurioItem.createProvider(new ICurio() {
+        return this.provider;
+    }
 
-            @Override
-            public void onCurioTick(String identifier, EntityLivingBase entityLivingBase) {
-                if (!entityLivingBase.getEntityWorld().isRemote && entityLivingBase.ticksExisted % 19 == 0) {
-                    entityLivingBase.addPotionEffect(new PotionEffect(MobEffects.HASTE, 20, 0, true, true));
-                }
-            }
+    @Override
+    public int getTickRate(String identifier, EntityLivingBase entityLivingBase) {
+        return 19;
+    }
 
-            @Override
-            public void playEquipSound(EntityLivingBase entityLivingBase) {
-                entityLivingBase.world.playSound(null, entityLivingBase.getPosition(), SoundEvents.ITEM_ARMOR_EQUIP_GOLD,
-                        SoundCategory.NEUTRAL, 1.0f, 1.0f);
-            }
+    @Override
+    public void onCurioTick(String identifier, EntityLivingBase entityLivingBase) {
+        if (!entityLivingBase.getEntityWorld().isRemote) {
+            entityLivingBase.addPotionEffect(new PotionEffect(MobEffects.HASTE, 20, 0, true, true));
+        }
+    }
 
-            @Override
-            public Multimap<String, AttributeModifier> getAttributeModifiers(String identifier) {
-                Multimap<String, AttributeModifier> atts = HashMultimap.create();
+    @Override
+    public void playEquipSound(EntityLivingBase entityLivingBase) {
+        entityLivingBase.world.playSound(null, entityLivingBase.getPosition(), SoundEvents.ITEM_ARMOR_EQUIP_GOLD,
+                SoundCategory.NEUTRAL, 1.0f, 1.0f);
+    }
 
-                if (CuriosAPI.getCurioTags(stack.getItem()).contains(identifier)) {
-                    atts.put(SharedMonsterAttributes.MOVEMENT_SPEED.getName(), new AttributeModifier(SPEED_UUID, "Speed bonus", 0.1, 2));
-                    atts.put(SharedMonsterAttributes.ARMOR.getName(), new AttributeModifier(ARMOR_UUID, "Armor bonus", 2, 0));
-                }
-                return atts;
-            }
+    @Override
+    public Multimap<String, AttributeModifier> getAttributeModifiers(String identifier) {
+        return CuriosAPI.hasCurioTag(this, identifier) ? MODIFIERS : ImmutableMultimap.of();
+    }
 
-            @Override
-            public boolean canRightClickEquip() {
-                return true;
-            }
-        });
+    @Override
+    public boolean canRightClickEquip() {
+        return true;
     }
 
     @Override
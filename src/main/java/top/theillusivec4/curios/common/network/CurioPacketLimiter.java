@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network;
+
+import net.minecraft.network.NetworkManager;
+import net.minecraft.util.Util;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often each connection can send each client-to-server Curios message with a token bucket per connection
+ * and message type, checked on the network thread so that throttled messages never reach the server thread
+ * Messages that carry state, such as scroll indices and sync requests, can be deferred instead of dropped when
+ * throttled. Only the latest deferred message for each key is kept, and they are handled in {@link #tick()} once the
+ * connection has tokens again.
+ * Counters for accepted, throttled and invalid messages can be checked with /curios stats. Each message is counted
+ * once, as accepted when it is handled and as throttled when it is dropped or replaced by a newer deferred message.
+ */
+public class CurioPacketLimiter {
+
+    private static final Map<NetworkManager, Bucket[]> BUCKETS = new WeakHashMap<>();
+
+    /**
+     * @return  True if the message can be handled, false if the connection has sent too many messages of this type
+     */
+    public static boolean tryAcquire(NetworkEvent.Context ctx, Type type) {
+        NetworkManager manager = ctx.getNetworkManager();
+        boolean acquired;
+
+        synchronized (BUCKETS) {
+            long time = Util.milliTime();
+            acquired = getBucket(manager, type, time).tryAcquire(time);
+        }
+        (acquired ? type.accepted : type.throttled).incrementAndGet();
+        return acquired;
+    }
+
+    /**
+     * Handles a message on the server thread if the connection has not sent too many messages of this type, otherwise
+     * keeps it until {@link #tick()} finds a token for it, replacing any deferred message with the same key
+     * @param key       What the message is about, so that a newer message replaces an older one
+     * @param action    Handles the message, always run on the server thread
+     */
+    public static void acquireOrDefer(NetworkEvent.Context ctx, Type type, Object key, Runnable action) {
+
+        if (acquireOrDefer(ctx.getNetworkManager(), type, key, action, Util.milliTime())) {
+            ctx.enqueueWork(action);
+        }
+    }
+
+    /**
+     * @return  True if the message can be handled right away, false if it was deferred or dropped
+     */
+    static boolean acquireOrDefer(NetworkManager manager, Type type, Object key, Runnable action, long time) {
+        boolean acquired;
+        boolean dropped = false;
+
+        synchronized (BUCKETS) {
+            Bucket bucket = getBucket(manager, type, time);
+            acquired = bucket.deferred.isEmpty() && bucket.tryAcquire(time);
+
+            if (!acquired) {
+                dropped = bucket.defer(key, action);
+            }
+        }
+
+        if (acquired) {
+            type.accepted.incrementAndGet();
+        } else if (dropped) {
+            type.throttled.incrementAndGet();
+        }
+        return acquired;
+    }
+
+    /**
+     * Handles deferred messages for which their connections have tokens again, in the order they were deferred
+     * Called on the server thread
+     */
+    public static void tick() {
+        tick(Util.milliTime());
+    }
+
+    static void tick(long time) {
+        List<Runnable> actions = null;
+
+        synchronized (BUCKETS) {
+
+            for (Bucket[] buckets : BUCKETS.values()) {
+
+                for (Bucket bucket : buckets) {
+
+                    if (bucket == null || bucket.deferred.isEmpty()) {
+                        continue;
+                    }
+                    Iterator<Runnable> iterator = bucket.deferred.values().iterator();
+
+                    while (iterator.hasNext() && bucket.tryAcquire(time)) {
+
+                        if (actions == null) {
+                            actions = new ArrayList<>();
+                        }
+                        actions.add(iterator.next());
+                        iterator.remove();
+                        bucket.type.accepted.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        if (actions != null) {
+
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+    }
+
+    private static Bucket getBucket(NetworkManager manager, Type type, long time) {
+        Bucket[] buckets = BUCKETS.computeIfAbsent(manager, key -> new Bucket[Type.values().length]);
+        Bucket bucket = buckets[type.ordinal()];
+
+        if (bucket == null) {
+            bucket = new Bucket(type, time);
+            buckets[type.ordinal()] = bucket;
+        }
+        return bucket;
+    }
+
+    /**
+     * Counts a message that passed the limit but failed validation
+     */
+    public static void reject(Type type) {
+        type.invalid.incrementAndGet();
+    }
+
+    public static int getConnections() {
+
+        synchronized (BUCKETS) {
+            return BUCKETS.size();
+        }
+    }
+
+    public static void clear() {
+
+        synchronized (BUCKETS) {
+            BUCKETS.clear();
+        }
+    }
+
+    public enum Type {
+        OPEN_CURIOS("open_curios", 4, 2),
+        OPEN_VANILLA("open_vanilla", 4, 2),
+        SCROLL("scroll", 20, 20),
+        REQUEST_SYNC("request_sync", 256, 64);
+
+        private final String name;
+        /** The most messages that can be sent at once*/
+        private final int capacity;
+        /** The number of messages that can be sent per second after the capacity is used up*/
+        private final int perSecond;
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+
+        Type(String name, int capacity, int perSecond) {
+            this.name = name;
+            this.capacity = capacity;
+            this.perSecond = perSecond;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getAccepted() {
+            return accepted.get();
+        }
+
+        public long getThrottled() {
+            return throttled.get();
+        }
+
+        public long getInvalid() {
+            return invalid.get();
+        }
+    }
+
+    private static class Bucket {
+
+        private final Type type;
+        private double tokens;
+        private long lastRefill;
+        /** Throttled messages waiting for a token by key, at most a few times the capacity of the bucket*/
+        private final Map<Object, Runnable> deferred = new LinkedHashMap<>();
+
+        Bucket(Type type, long time) {
+            this.type = type;
+            this.tokens = type.capacity;
+            this.lastRefill = time;
+        }
+
+        boolean tryAcquire(long time) {
+            tokens = Math.min(type.capacity, tokens + (time - lastRefill) * type.perSecond / 1000.0D);
+            lastRefill = time;
+
+            if (tokens < 1.0D) {
+                return false;
+            }
+            tokens -= 1.0D;
+            return true;
+        }
+
+        /**
+         * @return  True if a message was dropped, either the older message with the same key or this one if too many
+         * messages are deferred already
+         */
+        boolean defer(Object key, Runnable action) {
+
+            if (deferred.remove(key) != null) {
+                deferred.put(key, action);
+                return true;
+            } else if (deferred.size() < type.capacity * 4) {
+                deferred.put(key, action);
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.network.NetworkDirection;
+import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.capability.ICurioItemHandler;
+import top.theillusivec4.curios.common.CuriosConfig;
+import top.theillusivec4.curios.common.network.server.sync.SPacketSyncMap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queues full curio map syncs and sends them at the end of each server tick under a byte budget, so that many players
+ * joining at once do not send every inventory to every nearby player in the same few ticks
+ * A player's own inventory is always sent before the inventories of entities it tracks
+ * The map is serialized when it is sent, not when it is queued, so the client always receives the current version
+ */
+public class CurioSyncScheduler {
+
+    private static final Deque<Request> OWNERS = new ArrayDeque<>();
+    private static final Deque<Request> TRACKERS = new ArrayDeque<>();
+    private static final Set<Request> QUEUED = new HashSet<>();
+
+    /**
+     * Queues a full sync of an entity's curio map to a player, ignored if the same sync is already queued
+     * Must be called from the server thread
+     */
+    public static void request(EntityPlayerMP recipient, EntityLivingBase entity) {
+        Request request = new Request(recipient, entity.getEntityId());
+
+        if (QUEUED.add(request)) {
+            (entity == recipient ? OWNERS : TRACKERS).add(request);
+        }
+    }
+
+    /**
+     * Sends queued syncs until the byte budget for this tick is used up, at least one sync is sent every tick
+     */
+    public static void tick() {
+        int budget = CuriosConfig.COMMON.syncBytesPerTick.get();
+        int sent = 0;
+
+        while (sent < budget) {
+            Request request = OWNERS.isEmpty() ? TRACKERS.poll() : OWNERS.poll();
+
+            if (request == null) {
+                return;
+            }
+            QUEUED.remove(request);
+            sent += send(request);
+        }
+    }
+
+    private static int send(Request request) {
+        EntityPlayerMP recipient = request.recipient;
+        NetworkManager manager = recipient.connection.getNetworkManager();
+
+        if (!manager.isChannelOpen()) {
+            return 0;
+        }
+        Entity entity = recipient.world.getEntityByID(request.entityId);
+
+        if (!(entity instanceof EntityLivingBase) || (entity != recipient && !((WorldServer) recipient.world)
+                .getEntityTracker().getTrackingPlayers(entity).contains(recipient))) {
+            return 0;
+        }
+        ICurioItemHandler handler = CuriosAPI.getCuriosHandler((EntityLivingBase) entity).orElse(null);
+
+        if (handler == null) {
+            return 0;
+        }
+        List<SPacketSyncMap> chunks = SPacketSyncMap.split(request.entityId, handler.getVersion(), handler.getCurioMap());
+        int bytes = 0;
+
+        for (SPacketSyncMap chunk : chunks) {
+            NetworkHandler.INSTANCE.sendTo(chunk, manager, NetworkDirection.PLAY_TO_CLIENT);
+            bytes += chunk.getSize();
+        }
+        return bytes;
+    }
+
+    public static void clear() {
+        OWNERS.clear();
+        TRACKERS.clear();
+        QUEUED.clear();
+    }
+
+    private static class Request {
+
+        private final EntityPlayerMP recipient;
+        private final int entityId;
+
+        Request(EntityPlayerMP recipient, int entityId) {
+            this.recipient = recipient;
+            this.entityId = entityId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (!(obj instanceof Request)) {
+                return false;
+            }
+            Request other = (Request) obj;
+            return other.recipient == recipient && other.entityId == entityId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(recipient) + entityId;
+        }
+    }
+}
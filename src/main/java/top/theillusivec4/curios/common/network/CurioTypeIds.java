@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkDirection;
+import top.theillusivec4.curios.api.CurioType;
+import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.CuriosRegistry;
+import top.theillusivec4.curios.common.network.server.sync.SPacketSyncTypeIds;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Writes curio type identifiers as the varint ordinals assigned by {@link CuriosRegistry}
+ * The ordinal table is sent to each connection once, before any other sync packet
+ * An ordinal of 0 is followed by the identifier string, for types that are not registered
+ */
+public class CurioTypeIds {
+
+    /** Connections that have already received the ordinal table*/
+    private static final Set<NetworkManager> SENT = Collections.newSetFromMap(new WeakHashMap<>());
+    /** The table received from the server the client is connected to*/
+    private static volatile String[] clientTable = new String[0];
+    /** The ordinal in the client's registry for each ordinal in the table, or -1 if the type is not registered*/
+    private static volatile int[] clientOrdinals = new int[0];
+
+    public static void write(PacketBuffer buf, String identifier) {
+        CurioType type = CuriosAPI.getType(identifier);
+        int ordinal = type != null ? type.getOrdinal() : -1;
+        buf.writeVarInt(ordinal + 1);
+
+        if (ordinal < 0) {
+            buf.writeString(identifier);
+        }
+    }
+
+    /**
+     * @return  The identifier read from the buffer, or null if the ordinal is not in the table from the server
+     */
+    @Nullable
+    public static String read(PacketBuffer buf) {
+        return readIdentifier(buf, buf.readVarInt());
+    }
+
+    /**
+     * Reads the rest of a type whose id was already read with {@link PacketBuffer#readVarInt()}
+     * @param id    The id read from the buffer
+     * @return  The identifier of the type, or null if the ordinal is not in the table from the server
+     */
+    @Nullable
+    public static String readIdentifier(PacketBuffer buf, int id) {
+
+        if (id == 0) {
+            return buf.readString(25);
+        }
+        String[] table = clientTable;
+        return id <= table.length ? table[id - 1] : null;
+    }
+
+    /**
+     * Maps a type id read from the buffer to the ordinal of the type in the client's registry through the table from
+     * the server, so that handlers can be looked up without comparing identifiers
+     * @param id    The id read from the buffer
+     * @return  The ordinal of the type on the client, or -1 if the type is not registered on the client
+     */
+    public static int toClientOrdinal(int id) {
+        int[] ordinals = clientOrdinals;
+        return id > 0 && id <= ordinals.length ? ordinals[id - 1] : -1;
+    }
+
+    /**
+     * Sends the ordinal table to the player's connection if it has not received it yet
+     */
+    public static void sendTable(EntityPlayerMP player) {
+        NetworkManager manager = player.connection.getNetworkManager();
+        boolean send;
+
+        synchronized (SENT) {
+            send = SENT.add(manager);
+        }
+
+        if (send) {
+            NetworkHandler.INSTANCE.sendTo(new SPacketSyncTypeIds(CuriosRegistry.getOrdinalTable()), manager,
+                    NetworkDirection.PLAY_TO_CLIENT);
+        }
+    }
+
+    public static void setClientTable(List<String> table) {
+        int[] ordinals = new int[table.size()];
+
+        for (int i = 0; i < ordinals.length; i++) {
+            CurioType type = CuriosAPI.getType(table.get(i));
+            ordinals[i] = type != null ? type.getOrdinal() : -1;
+        }
+        clientOrdinals = ordinals;
+        clientTable = table.toArray(new String[0]);
+    }
+}
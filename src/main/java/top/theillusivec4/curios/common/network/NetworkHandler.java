@@ -27,6 +27,7 @@ import net.minecraftforge.fml.network.simple.SimpleChannel;
 import top.theillusivec4.curios.Curios;
 import top.theillusivec4.curios.common.network.client.CPacketOpenCurios;
 import top.theillusivec4.curios.common.network.client.CPacketOpenVanilla;
+import top.theillusivec4.curios.common.network.client.CPacketRequestSync;
 import top.theillusivec4.curios.common.network.client.CPacketScrollCurios;
 import top.theillusivec4.curios.common.network.server.SPacketScrollCurios;
 import top.theillusivec4.curios.common.network.server.sync.*;
@@ -37,7 +38,7 @@ import java.util.function.Supplier;
 
 public class NetworkHandler {
 
-    private static final String PTC_VERSION = "1";
+    private static final String PTC_VERSION = "7";
     public static final SimpleChannel INSTANCE = NetworkRegistry.ChannelBuilder
             .named(new ResourceLocation(Curios.MODID, "main"))
             .networkProtocolVersion(() -> PTC_VERSION)
@@ -51,12 +52,14 @@ public class NetworkHandler {
         registerMessage(CPacketOpenCurios.class, CPacketOpenCurios::encode, CPacketOpenCurios::decode, CPacketOpenCurios::handle);
         registerMessage(CPacketOpenVanilla.class, CPacketOpenVanilla::encode, CPacketOpenVanilla::decode, CPacketOpenVanilla::handle);
         registerMessage(CPacketScrollCurios.class, CPacketScrollCurios::encode, CPacketScrollCurios::decode, CPacketScrollCurios::handle);
-        registerMessage(SPacketSyncContents.class, SPacketSyncContents::encode, SPacketSyncContents::decode, SPacketSyncContents::handle);
+        registerMessage(CPacketRequestSync.class, CPacketRequestSync::encode, CPacketRequestSync::decode, CPacketRequestSync::handle);
         registerMessage(SPacketScrollCurios.class, SPacketScrollCurios::encode, SPacketScrollCurios::decode, SPacketScrollCurios::handle);
+        registerMessage(SPacketSyncTypeIds.class, SPacketSyncTypeIds::encode, SPacketSyncTypeIds::decode, SPacketSyncTypeIds::handle);
         registerMessage(SPacketSyncActive.class, SPacketSyncActive::encode, SPacketSyncActive::decode, SPacketSyncActive::handle);
         registerMessage(SPacketSyncSize.class, SPacketSyncSize::encode, SPacketSyncSize::decode, SPacketSyncSize::handle);
         registerMessage(SPacketSyncMap.class, SPacketSyncMap::encode, SPacketSyncMap::decode, SPacketSyncMap::handle);
-        registerMessage(SPacketSyncContentsWithTag.class, SPacketSyncContentsWithTag::encode, SPacketSyncContentsWithTag::decode, SPacketSyncContentsWithTag::handle);
+        registerMessage(SPacketSyncBatch.class, SPacketSyncBatch::encode, SPacketSyncBatch::decode, SPacketSyncBatch::handle);
+        registerMessage(SPacketSyncVersion.class, SPacketSyncVersion::encode, SPacketSyncVersion::decode, SPacketSyncVersion::handle);
     }
 
     private static <MSG> void registerMessage(Class<MSG> messageType, BiConsumer<MSG, PacketBuffer> encoder,
@@ -23,7 +23,9 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 import net.minecraftforge.fml.network.NetworkHooks;
+import top.theillusivec4.curios.common.inventory.ContainerCurios;
 import top.theillusivec4.curios.common.inventory.CurioContainerHandler;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
 
 import java.util.function.Supplier;
 
@@ -48,15 +50,27 @@ public class CPacketOpenCurios {
 
     public static void handle(CPacketOpenCurios msg, Supplier<NetworkEvent.Context> ctx) {
 
+        if (!CurioPacketLimiter.tryAcquire(ctx.get(), CurioPacketLimiter.Type.OPEN_CURIOS)) {
+            ctx.get().setPacketHandled(true);
+            return;
+        }
+
         ctx.get().enqueueWork(() -> {
             EntityPlayerMP sender = ctx.get().getSender();
 
             if (sender != null) {
+
+                if (sender.openContainer instanceof ContainerCurios || !Float.isFinite(msg.oldMouseX)
+                        || !Float.isFinite(msg.oldMouseY)) {
+                    CurioPacketLimiter.reject(CurioPacketLimiter.Type.OPEN_CURIOS);
+                    return;
+                }
                 NetworkHooks.openGui(sender, new CurioContainerHandler(), buf -> {
                     buf.writeFloat(msg.oldMouseX);
                     buf.writeFloat(msg.oldMouseY);
                 });
             }
         });
+        ctx.get().setPacketHandled(true);
     }
 }
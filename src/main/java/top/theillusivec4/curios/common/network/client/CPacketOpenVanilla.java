@@ -22,6 +22,8 @@ package top.theillusivec4.curios.common.network.client;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
+import top.theillusivec4.curios.common.inventory.ContainerCurios;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
 
 import java.util.function.Supplier;
 
@@ -35,10 +37,20 @@ public class CPacketOpenVanilla {
 
     public static void handle(CPacketOpenVanilla msg, Supplier<NetworkEvent.Context> ctx) {
 
+        if (!CurioPacketLimiter.tryAcquire(ctx.get(), CurioPacketLimiter.Type.OPEN_VANILLA)) {
+            ctx.get().setPacketHandled(true);
+            return;
+        }
+
         ctx.get().enqueueWork(() -> {
             EntityPlayerMP sender = ctx.get().getSender();
 
             if (sender != null) {
+
+                if (!(sender.openContainer instanceof ContainerCurios)) {
+                    CurioPacketLimiter.reject(CurioPacketLimiter.Type.OPEN_VANILLA);
+                    return;
+                }
                 sender.closeContainer();
             }
         });
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network.client;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.network.NetworkEvent;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
+import top.theillusivec4.curios.common.network.CurioSyncScheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * Requests the full curio map of an entity that the client has no current copy of
+ * The map is queued with the {@link CurioSyncScheduler} rather than sent right away, and throttled requests are
+ * deferred until the connection can send requests again
+ */
+public class CPacketRequestSync {
+
+    private int entityId;
+
+    public CPacketRequestSync(int entityId) {
+        this.entityId = entityId;
+    }
+
+    public static void encode(CPacketRequestSync msg, PacketBuffer buf) {
+        buf.writeVarInt(msg.entityId);
+    }
+
+    public static CPacketRequestSync decode(PacketBuffer buf) {
+        return new CPacketRequestSync(buf.readVarInt());
+    }
+
+    public static void handle(CPacketRequestSync msg, Supplier<NetworkEvent.Context> ctx) {
+        CurioPacketLimiter.acquireOrDefer(ctx.get(), CurioPacketLimiter.Type.REQUEST_SYNC, msg.entityId, () -> {
+            EntityPlayerMP sender = ctx.get().getSender();
+
+            if (sender != null) {
+                Entity entity = sender.world.getEntityByID(msg.entityId);
+
+                if (entity instanceof EntityLivingBase && (entity == sender || ((WorldServer) sender.world)
+                        .getEntityTracker().getTrackingPlayers(entity).contains(sender))) {
+                    CurioSyncScheduler.request(sender, (EntityLivingBase) entity);
+                } else {
+                    CurioPacketLimiter.reject(CurioPacketLimiter.Type.REQUEST_SYNC);
+                }
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
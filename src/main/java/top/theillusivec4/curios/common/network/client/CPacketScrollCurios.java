@@ -22,40 +22,57 @@ package top.theillusivec4.curios.common.network.client;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.Container;
 import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent;
 import top.theillusivec4.curios.common.inventory.ContainerCurios;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter;
+import top.theillusivec4.curios.common.network.NetworkHandler;
+import top.theillusivec4.curios.common.network.server.SPacketScrollCurios;
 
 import java.util.function.Supplier;
 
 public class CPacketScrollCurios {
 
     private int windowId;
+    private int sequence;
     private int index;
 
-    public CPacketScrollCurios(int windowId, int index) {
+    public CPacketScrollCurios(int windowId, int sequence, int index) {
         this.windowId = windowId;
+        this.sequence = sequence;
         this.index = index;
     }
 
     public static void encode(CPacketScrollCurios msg, PacketBuffer buf) {
-        buf.writeInt(msg.windowId);
-        buf.writeInt(msg.index);
+        buf.writeVarInt(msg.windowId);
+        buf.writeVarInt(msg.sequence);
+        buf.writeVarInt(msg.index);
     }
 
     public static CPacketScrollCurios decode(PacketBuffer buf) {
-        return new CPacketScrollCurios(buf.readInt(), buf.readInt());
+        return new CPacketScrollCurios(buf.readVarInt(), buf.readVarInt(), buf.readVarInt());
     }
 
     public static void handle(CPacketScrollCurios msg, Supplier<NetworkEvent.Context> ctx) {
-
-        ctx.get().enqueueWork(() -> {
+        CurioPacketLimiter.acquireOrDefer(ctx.get(), CurioPacketLimiter.Type.SCROLL, msg.windowId, () -> {
             EntityPlayerMP sender = ctx.get().getSender();
 
             if (sender != null) {
                 Container container = sender.openContainer;
 
                 if (container instanceof ContainerCurios && container.windowId == msg.windowId) {
-                    ((ContainerCurios)container).scrollToIndex(msg.index);
+                    ContainerCurios containerCurios = (ContainerCurios) container;
+
+                    if (msg.index >= 0 && msg.index <= containerCurios.getMaxScrollIndex()) {
+                        containerCurios.scrollToIndex(msg.index);
+                    } else {
+                        CurioPacketLimiter.reject(CurioPacketLimiter.Type.SCROLL);
+                    }
+                    NetworkHandler.INSTANCE.sendTo(new SPacketScrollCurios(msg.windowId, msg.sequence,
+                                    containerCurios.getScrollIndex()), sender.connection.getNetworkManager(),
+                            NetworkDirection.PLAY_TO_CLIENT);
+                } else {
+                    CurioPacketLimiter.reject(CurioPacketLimiter.Type.SCROLL);
                 }
             }
         });
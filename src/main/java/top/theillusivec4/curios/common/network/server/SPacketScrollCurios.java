@@ -28,23 +28,29 @@ import top.theillusivec4.curios.common.inventory.ContainerCurios;
 
 import java.util.function.Supplier;
 
+/**
+ * Confirms to the client that the server has bound its curio view slots for the latest scroll index it received
+ */
 public class SPacketScrollCurios {
 
     private int windowId;
+    private int sequence;
     private int index;
 
-    public SPacketScrollCurios(int windowId, int index) {
+    public SPacketScrollCurios(int windowId, int sequence, int index) {
         this.windowId = windowId;
+        this.sequence = sequence;
         this.index = index;
     }
 
     public static void encode(SPacketScrollCurios msg, PacketBuffer buf) {
-        buf.writeInt(msg.windowId);
-        buf.writeInt(msg.index);
+        buf.writeVarInt(msg.windowId);
+        buf.writeVarInt(msg.sequence);
+        buf.writeVarInt(msg.index);
     }
 
     public static SPacketScrollCurios decode(PacketBuffer buf) {
-        return new SPacketScrollCurios(buf.readInt(), buf.readInt());
+        return new SPacketScrollCurios(buf.readVarInt(), buf.readVarInt(), buf.readVarInt());
     }
 
     public static void handle(SPacketScrollCurios msg, Supplier<NetworkEvent.Context> ctx) {
@@ -54,7 +60,7 @@ public class SPacketScrollCurios {
             Container container = sp.openContainer;
 
             if (container instanceof ContainerCurios && container.windowId == msg.windowId) {
-                ((ContainerCurios)container).scrollToIndex(msg.index);
+                ((ContainerCurios)container).confirmScroll(msg.sequence, msg.index);
             }
         });
         ctx.get().setPacketHandled(true);
@@ -25,29 +25,34 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.client.ClientCurioCache;
+import top.theillusivec4.curios.common.network.CurioTypeIds;
 
 import java.util.function.Supplier;
 
 public class SPacketSyncActive {
 
     private int entityId;
+    private int version;
     private String curioId;
     private boolean remove;
 
-    public SPacketSyncActive(int entityId, String curioId, boolean remove) {
+    public SPacketSyncActive(int entityId, int version, String curioId, boolean remove) {
         this.entityId = entityId;
+        this.version = version;
         this.curioId = curioId;
         this.remove = remove;
     }
 
     public static void encode(SPacketSyncActive msg, PacketBuffer buf) {
         buf.writeInt(msg.entityId);
-        buf.writeString(msg.curioId);
+        buf.writeVarInt(msg.version);
+        CurioTypeIds.write(buf, msg.curioId);
         buf.writeBoolean(msg.remove);
     }
 
     public static SPacketSyncActive decode(PacketBuffer buf) {
-        return new SPacketSyncActive(buf.readInt(), buf.readString(25), buf.readBoolean());
+        return new SPacketSyncActive(buf.readInt(), buf.readVarInt(), CurioTypeIds.read(buf), buf.readBoolean());
     }
 
     public static void handle(SPacketSyncActive msg, Supplier<NetworkEvent.Context> ctx) {
@@ -55,7 +60,7 @@ public class SPacketSyncActive {
         ctx.get().enqueueWork(() -> {
             Entity entity = Minecraft.getInstance().world.getEntityByID(msg.entityId);
 
-            if (entity instanceof EntityLivingBase) {
+            if (entity instanceof EntityLivingBase && msg.curioId != null) {
                 CuriosAPI.getCuriosHandler((EntityLivingBase) entity).ifPresent(handler -> {
 
                     if (msg.remove) {
@@ -63,6 +68,7 @@ public class SPacketSyncActive {
                     } else {
                         handler.enableCurio(msg.curioId);
                     }
+                    ClientCurioCache.update((EntityLivingBase) entity, handler, msg.version);
                 });
             }
         });
@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network.server.sync;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.INBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.api.capability.ICurioItemHandler;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.client.ClientCurioCache;
+import top.theillusivec4.curios.common.network.CurioTypeIds;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Syncs every slot change of an entity's curios that happened during one tick
+ * On the server, the changes are serialized once into a shared payload by {@link SPacketSyncBatch.Builder} so that the
+ * same message can be sent to every recipient without copying or serializing the ItemStacks again
+ * Changes to the count, damage or a single tag of an ItemStack can be sent as deltas that patch the client's ItemStack
+ * in place, which are skipped if the client has no ItemStack in that slot
+ */
+public class SPacketSyncBatch {
+
+    private static final int FULL = 0;
+    private static final int COUNT = 1;
+    private static final int DAMAGE = 2;
+    private static final int TAG = 3;
+
+    private int entityId;
+    private int version;
+    private PacketBuffer payload;
+    private List<Entry> entries;
+
+    private SPacketSyncBatch(int entityId, int version, PacketBuffer payload) {
+        this.entityId = entityId;
+        this.version = version;
+        this.payload = payload;
+    }
+
+    private SPacketSyncBatch(int entityId, int version, List<Entry> entries) {
+        this.entityId = entityId;
+        this.version = version;
+        this.entries = entries;
+    }
+
+    public static void encode(SPacketSyncBatch msg, PacketBuffer buf) {
+        buf.writeVarInt(msg.entityId);
+        buf.writeVarInt(msg.version);
+        buf.writeBytes(msg.payload, msg.payload.readerIndex(), msg.payload.readableBytes());
+    }
+
+    public static SPacketSyncBatch decode(PacketBuffer buf) {
+        int entityId = buf.readVarInt();
+        int version = buf.readVarInt();
+        int size = buf.readVarInt();
+        List<Entry> entries = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int typeId = buf.readVarInt();
+            int ordinal = CurioTypeIds.toClientOrdinal(typeId);
+            String curioId = CurioTypeIds.readIdentifier(buf, typeId);
+            Entry entry = new Entry(ordinal, curioId, buf.readVarInt(), buf.readByte());
+
+            switch (entry.kind) {
+                case COUNT:
+                case DAMAGE:
+                    entry.value = buf.readVarInt();
+                    break;
+                case TAG:
+                    entry.key = buf.readString(32767);
+                    entry.tag = buf.readCompoundTag();
+                    break;
+                default:
+                    entry.stack = buf.readItemStack();
+                    entry.tag = buf.readBoolean() ? buf.readCompoundTag() : null;
+            }
+            entries.add(entry);
+        }
+        return new SPacketSyncBatch(entityId, version, entries);
+    }
+
+    public static void handle(SPacketSyncBatch msg, Supplier<NetworkEvent.Context> ctx) {
+
+        ctx.get().enqueueWork(() -> {
+            Entity entity = Minecraft.getInstance().world.getEntityByID(msg.entityId);
+
+            if (entity instanceof EntityLivingBase) {
+                CuriosAPI.getCuriosHandler((EntityLivingBase) entity).ifPresent(handler -> {
+                    apply(msg, handler);
+                    ClientCurioCache.update((EntityLivingBase) entity, handler, msg.version);
+                });
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+
+    /**
+     * Applies every change of a decoded message to the handler, skipping slots that the handler does not have
+     */
+    static void apply(SPacketSyncBatch msg, ICurioItemHandler handler) {
+
+        for (Entry entry : msg.entries) {
+            CurioStackHandler stackHandler = entry.ordinal >= 0 ? handler.getStackHandler(entry.ordinal)
+                    : entry.curioId != null ? handler.getStackHandler(entry.curioId) : null;
+
+            if (stackHandler != null && entry.slotId >= 0 && entry.slotId < stackHandler.getSlots()) {
+                entry.apply(stackHandler);
+            }
+        }
+    }
+
+    /**
+     * Serializes slot changes directly into a payload as they are added
+     */
+    public static class Builder {
+
+        private final int entityId;
+        private final PacketBuffer entries = new PacketBuffer(Unpooled.buffer());
+        private int size = 0;
+
+        public Builder(int entityId) {
+            this.entityId = entityId;
+        }
+
+        /**
+         * @param curioId   The identifier of the slot type
+         * @param slotId    The slot index
+         * @param stack     The ItemStack now in the slot, written immediately so that later changes are not sent
+         * @param syncTag   The extra sync data from {@link top.theillusivec4.curios.api.capability.ICurio#getSyncTag()},
+         *                  or null if there is none
+         * @return  This builder
+         */
+        public Builder add(String curioId, int slotId, ItemStack stack, @Nullable NBTTagCompound syncTag) {
+            writeHeader(curioId, slotId, FULL);
+            entries.writeItemStack(stack);
+            entries.writeBoolean(syncTag != null);
+
+            if (syncTag != null) {
+                entries.writeCompoundTag(syncTag);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a slot change as a delta against the previous ItemStack if possible, otherwise as the full ItemStack
+         * Count changes are sent as deltas when the item and tag are the same. Damage and single tag changes are only
+         * sent as deltas if tagDeltas is true, as recipients that do not receive every tag change can not patch tags.
+         * @param curioId   The identifier of the slot type
+         * @param slotId    The slot index
+         * @param prevStack The ItemStack that the recipients have in the slot
+         * @param stack     The ItemStack now in the slot
+         * @param syncTag   The extra sync data, which always needs the full ItemStack, or null if there is none
+         * @param tagDeltas True if the recipients have the same tag as prevStack
+         * @return  This builder
+         */
+        public Builder addChange(String curioId, int slotId, ItemStack prevStack, ItemStack stack,
+                                 @Nullable NBTTagCompound syncTag, boolean tagDeltas) {
+
+            if (syncTag == null && !prevStack.isEmpty() && !stack.isEmpty() && prevStack.getItem() == stack.getItem()) {
+                NBTTagCompound prevTag = prevStack.getTag();
+                NBTTagCompound tag = stack.getTag();
+
+                if (Objects.equals(prevTag, tag)) {
+
+                    if (prevStack.getCount() != stack.getCount()) {
+                        writeHeader(curioId, slotId, COUNT);
+                        entries.writeVarInt(stack.getCount());
+                        return this;
+                    }
+                } else if (tagDeltas && prevStack.getCount() == stack.getCount()) {
+                    String key = getChangedKey(prevTag, tag);
+
+                    if (key != null && key.equals("Damage") && stack.isDamageable()) {
+                        writeHeader(curioId, slotId, DAMAGE);
+                        entries.writeVarInt(stack.getDamage());
+                        return this;
+                    } else if (key != null) {
+                        INBTBase value = tag != null ? tag.get(key) : null;
+                        NBTTagCompound wrapper = null;
+
+                        if (value != null) {
+                            wrapper = new NBTTagCompound();
+                            wrapper.put(key, value);
+                        }
+                        writeHeader(curioId, slotId, TAG);
+                        entries.writeString(key);
+                        entries.writeCompoundTag(wrapper);
+                        return this;
+                    }
+                }
+            }
+            return this.add(curioId, slotId, stack, syncTag);
+        }
+
+        private void writeHeader(String curioId, int slotId, int kind) {
+            CurioTypeIds.write(entries, curioId);
+            entries.writeVarInt(slotId);
+            entries.writeByte(kind);
+            size++;
+        }
+
+        /**
+         * @return  The only top level key that differs between the tags, or null if there are none or more than one
+         */
+        @Nullable
+        private static String getChangedKey(@Nullable NBTTagCompound prevTag, @Nullable NBTTagCompound tag) {
+            String changed = null;
+
+            if (tag != null) {
+
+                for (String key : tag.keySet()) {
+
+                    if (prevTag == null || !Objects.equals(prevTag.get(key), tag.get(key))) {
+
+                        if (changed != null) {
+                            return null;
+                        }
+                        changed = key;
+                    }
+                }
+            }
+
+            if (prevTag != null) {
+
+                for (String key : prevTag.keySet()) {
+
+                    if (tag == null || !tag.contains(key)) {
+
+                        if (changed != null) {
+                            return null;
+                        }
+                        changed = key;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * @param version   The version of the entity's handler after these changes
+         * @return  A message that can be sent to any number of recipients
+         */
+        public SPacketSyncBatch build(int version) {
+            return this.buildWith(version, null);
+        }
+
+        /**
+         * @param version   The version of the entity's handler after these changes
+         * @param other     Another builder for the same entity whose changes are appended after the changes of this one
+         * @return  A message that can be sent to any number of recipients
+         */
+        public SPacketSyncBatch buildWith(int version, @Nullable Builder other) {
+            int otherSize = other != null ? other.size : 0;
+            int otherBytes = other != null ? other.entries.readableBytes() : 0;
+            PacketBuffer payload = new PacketBuffer(Unpooled.buffer(5 + entries.readableBytes() + otherBytes));
+            payload.writeVarInt(size + otherSize);
+            payload.writeBytes(entries, entries.readerIndex(), entries.readableBytes());
+
+            if (other != null) {
+                payload.writeBytes(other.entries, other.entries.readerIndex(), otherBytes);
+            }
+            return new SPacketSyncBatch(entityId, version, payload);
+        }
+    }
+
+    private static class Entry {
+
+        /** The ordinal of the type on the client, with the identifier only used for types not registered on the client*/
+        private final int ordinal;
+        private final String curioId;
+        private final int slotId;
+        private final int kind;
+        private ItemStack stack;
+        private NBTTagCompound tag;
+        private String key;
+        private int value;
+
+        Entry(int ordinal, @Nullable String curioId, int slotId, int kind) {
+            this.ordinal = ordinal;
+            this.curioId = curioId;
+            this.slotId = slotId;
+            this.kind = kind;
+        }
+
+        void apply(CurioStackHandler stackHandler) {
+
+            if (kind == FULL) {
+
+                if (tag != null && !CuriosAPI.isSharedCurio(stack.getItem())) {
+                    CuriosAPI.getCurio(stack).ifPresent(curio -> curio.readSyncTag(tag));
+                }
+                stackHandler.setStackInSlot(slotId, stack);
+                return;
+            }
+            ItemStack current = stackHandler.getStackInSlot(slotId);
+
+            if (current.isEmpty()) {
+                return;
+            }
+
+            switch (kind) {
+                case COUNT:
+                    current.setCount(value);
+                    break;
+                case DAMAGE:
+                    current.setDamage(value);
+                    break;
+                case TAG:
+                    if (tag != null) {
+                        current.getOrCreateTag().put(key, tag.get(key));
+                    } else if (current.hasTag()) {
+                        current.getTag().remove(key);
+                    }
+                    break;
+            }
+            stackHandler.markDirty(slotId);
+        }
+    }
+}
@@ -20,68 +20,256 @@
 package top.theillusivec4.curios.common.network.server.sync;
 
 import com.google.common.collect.Maps;
+import io.netty.buffer.Unpooled;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.NetworkManager;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent;
 import top.theillusivec4.curios.api.CuriosAPI;
 import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.client.ClientCurioCache;
+import top.theillusivec4.curios.common.network.CurioTypeIds;
+import top.theillusivec4.curios.common.network.NetworkHandler;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.function.Supplier;
 
+/**
+ * Syncs the full curio map of an entity as one or more ordered chunks
+ * Sizes and slot indices are written as varints and only occupied slots are written, so an inventory with many empty
+ * slots costs a few bytes per type instead of a full ItemStackHandler compound
+ * A chunk is closed once it reaches {@link #CHUNK_BYTES}, so a type can be continued in the next chunk. The first chunk
+ * starts a new map on the client and later chunks are added to it, which only replaces the handler's map once the last
+ * chunk has arrived. The complete map is then kept in the {@link ClientCurioCache} at the version it was sent with.
+ */
 public class SPacketSyncMap {
 
+    /** Soft limit for the size of a chunk, well below the maximum custom payload size*/
+    public static final int CHUNK_BYTES = 32768;
+
+    private static final int FIRST = 1;
+    private static final int LAST = 2;
+
+    /** Maps that are still being received on the client, by entity id, dropped when the entity or world is gone*/
+    private static final Map<Integer, SortedMap<String, CurioStackHandler>> RECEIVING = new HashMap<>();
+
     private int entityId;
-    private int entrySize;
-    private SortedMap<String, CurioStackHandler> map;
+    private int version;
+    private int flags;
+    private PacketBuffer payload;
+    private List<Section> sections;
 
-    public SPacketSyncMap(int entityId, SortedMap<String, CurioStackHandler> map) {
+    private SPacketSyncMap(int entityId, int version, int flags, PacketBuffer payload) {
         this.entityId = entityId;
-        this.entrySize = map.size();
-        this.map = map;
+        this.version = version;
+        this.flags = flags;
+        this.payload = payload;
     }
 
-    public static void encode(SPacketSyncMap msg, PacketBuffer buf) {
-        buf.writeInt(msg.entityId);
-        buf.writeInt(msg.entrySize);
+    private SPacketSyncMap(int entityId, int version, int flags, List<Section> sections) {
+        this.entityId = entityId;
+        this.version = version;
+        this.flags = flags;
+        this.sections = sections;
+    }
 
-        for (Map.Entry<String, CurioStackHandler> entry : msg.map.entrySet()) {
-            buf.writeString(entry.getKey());
-            buf.writeCompoundTag(entry.getValue().serializeNBT());
+    /**
+     * Sends the full curio map of an entity to a connection
+     */
+    public static void send(int entityId, int version, SortedMap<String, CurioStackHandler> map, NetworkManager manager) {
+
+        for (SPacketSyncMap chunk : split(entityId, version, map)) {
+            NetworkHandler.INSTANCE.sendTo(chunk, manager, NetworkDirection.PLAY_TO_CLIENT);
         }
     }
 
+    /**
+     * Serializes the full curio map of an entity into ordered chunks that can be sent to any number of recipients
+     * @param entityId  The id of the entity
+     * @param version   The current version of the entity's handler
+     * @param map       The curio map of the entity
+     * @return  A list of at least one chunk, the last of which marks the sync as complete
+     */
+    public static List<SPacketSyncMap> split(int entityId, int version, SortedMap<String, CurioStackHandler> map) {
+        List<SPacketSyncMap> chunks = new ArrayList<>();
+        PacketBuffer payload = new PacketBuffer(Unpooled.buffer());
+
+        for (Map.Entry<String, CurioStackHandler> entry : map.entrySet()) {
+            CurioStackHandler stackHandler = entry.getValue();
+            writeSectionHeader(payload, entry.getKey(), stackHandler);
+
+            for (int i = 0; i < stackHandler.getSlots(); i++) {
+                ItemStack stack = stackHandler.getStackInSlot(i);
+
+                if (!stack.isEmpty()) {
+                    payload.writeVarInt(i + 1);
+                    payload.writeItemStack(stack);
+
+                    if (payload.readableBytes() >= CHUNK_BYTES) {
+                        payload.writeVarInt(0);
+                        payload.writeBoolean(false);
+                        chunks.add(new SPacketSyncMap(entityId, version, chunks.isEmpty() ? FIRST : 0, payload));
+                        payload = new PacketBuffer(Unpooled.buffer());
+                        writeSectionHeader(payload, entry.getKey(), stackHandler);
+                    }
+                }
+            }
+            payload.writeVarInt(0);
+        }
+        payload.writeBoolean(false);
+        chunks.add(new SPacketSyncMap(entityId, version, (chunks.isEmpty() ? FIRST : 0) | LAST, payload));
+        return chunks;
+    }
+
+    /**
+     * @return  The number of bytes of this chunk, only available on the server
+     */
+    public int getSize() {
+        return payload.readableBytes();
+    }
+
+    private static void writeSectionHeader(PacketBuffer buf, String identifier, CurioStackHandler stackHandler) {
+        buf.writeBoolean(true);
+        CurioTypeIds.write(buf, identifier);
+        buf.writeVarInt(stackHandler.getSlots());
+        buf.writeBoolean(stackHandler.isHidden());
+    }
+
+    public static void encode(SPacketSyncMap msg, PacketBuffer buf) {
+        buf.writeVarInt(msg.entityId);
+        buf.writeVarInt(msg.version);
+        buf.writeByte(msg.flags);
+        buf.writeBytes(msg.payload, msg.payload.readerIndex(), msg.payload.readableBytes());
+    }
+
     public static SPacketSyncMap decode(PacketBuffer buf) {
-        int entityId = buf.readInt();
-        int entrySize = buf.readInt();
-        SortedMap<String, CurioStackHandler> map = Maps.newTreeMap();
+        int entityId = buf.readVarInt();
+        int version = buf.readVarInt();
+        int flags = buf.readByte();
+        List<Section> sections = new ArrayList<>();
 
-        for (int i = 0; i < entrySize; i++) {
-            String key = buf.readString(25);
-            CurioStackHandler stackHandler = new CurioStackHandler();
-            NBTTagCompound compound = buf.readCompoundTag();
+        while (buf.readBoolean()) {
+            Section section = new Section(CurioTypeIds.read(buf), buf.readVarInt(), buf.readBoolean());
 
-            if (compound != null) {
-                stackHandler.deserializeNBT(compound);
+            for (int slot = buf.readVarInt(); slot > 0; slot = buf.readVarInt()) {
+                section.add(slot - 1, buf.readItemStack());
             }
-            map.put(key, stackHandler);
+            sections.add(section);
         }
-        return new SPacketSyncMap(entityId, map);
+        return new SPacketSyncMap(entityId, version, flags, sections);
     }
 
     public static void handle(SPacketSyncMap msg, Supplier<NetworkEvent.Context> ctx) {
 
         ctx.get().enqueueWork(() -> {
+            SortedMap<String, CurioStackHandler> map = receive(msg);
             Entity entity = Minecraft.getInstance().world.getEntityByID(msg.entityId);
 
-            if (entity instanceof EntityLivingBase) {
-                CuriosAPI.getCuriosHandler((EntityLivingBase) entity).ifPresent(handler -> handler.setCurioMap(msg.map));
+            if (map != null && entity instanceof EntityLivingBase) {
+                EntityLivingBase livingBase = (EntityLivingBase) entity;
+                CuriosAPI.getCuriosHandler(livingBase).ifPresent(handler -> {
+                    handler.setCurioMap(map);
+                    ClientCurioCache.put(livingBase, msg.version, handler.getCurioMap());
+                });
             }
         });
         ctx.get().setPacketHandled(true);
     }
+
+    /**
+     * Adds a received chunk to the map being assembled for its entity
+     * @param msg   The decoded chunk
+     * @return  The complete map if this was the last chunk, or null if more chunks are expected
+     */
+    @Nullable
+    static SortedMap<String, CurioStackHandler> receive(SPacketSyncMap msg) {
+
+        if ((msg.flags & FIRST) != 0) {
+            RECEIVING.put(msg.entityId, Maps.newTreeMap());
+        }
+        SortedMap<String, CurioStackHandler> map = RECEIVING.get(msg.entityId);
+
+        if (map == null) {
+            return null;
+        }
+
+        for (Section section : msg.sections) {
+
+            if (section.identifier != null) {
+                CurioStackHandler stackHandler = map.get(section.identifier);
+
+                if (stackHandler == null || stackHandler.getSlots() != section.size) {
+                    stackHandler = new CurioStackHandler(section.size);
+                    map.put(section.identifier, stackHandler);
+                }
+                stackHandler.setHidden(section.hidden);
+
+                for (int i = 0; i < section.count; i++) {
+                    int slot = section.slots[i];
+
+                    if (slot < stackHandler.getSlots()) {
+                        stackHandler.setStackInSlot(slot, section.stacks[i]);
+                    }
+                }
+            }
+        }
+
+        if ((msg.flags & LAST) != 0) {
+            RECEIVING.remove(msg.entityId);
+            return map;
+        }
+        return null;
+    }
+
+    /**
+     * Drops the maps being received for entities that are no longer in the client world
+     */
+    public static void purgeReceiving(World world) {
+
+        if (!RECEIVING.isEmpty()) {
+            RECEIVING.keySet().removeIf(entityId -> world.getEntityByID(entityId) == null);
+        }
+    }
+
+    public static void clearReceiving() {
+        RECEIVING.clear();
+    }
+
+    private static class Section {
+
+        private final String identifier;
+        private final int size;
+        private final boolean hidden;
+        /** Occupied slots and their stacks, sized from the slot count as no more than that can be sent*/
+        private final int[] slots;
+        private final ItemStack[] stacks;
+        private int count;
+
+        Section(String identifier, int size, boolean hidden) {
+            this.identifier = identifier;
+            this.size = size;
+            this.hidden = hidden;
+            this.slots = new int[size];
+            this.stacks = new ItemStack[size];
+        }
+
+        void add(int slot, ItemStack stack) {
+
+            if (count < size) {
+                slots[count] = slot;
+                stacks[count] = stack;
+                count++;
+            }
+        }
+    }
 }
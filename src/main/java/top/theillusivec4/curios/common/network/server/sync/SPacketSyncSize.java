@@ -25,18 +25,22 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.client.ClientCurioCache;
+import top.theillusivec4.curios.common.network.CurioTypeIds;
 
 import java.util.function.Supplier;
 
 public class SPacketSyncSize {
 
     private int entityId;
+    private int version;
     private String curioId;
     private int amount;
     private boolean remove;
 
-    public SPacketSyncSize(int entityId, String curioId, int amount, boolean remove) {
+    public SPacketSyncSize(int entityId, int version, String curioId, int amount, boolean remove) {
         this.entityId = entityId;
+        this.version = version;
         this.curioId = curioId;
         this.amount = amount;
         this.remove = remove;
@@ -44,13 +48,14 @@ public class SPacketSyncSize {
 
     public static void encode(SPacketSyncSize msg, PacketBuffer buf) {
         buf.writeInt(msg.entityId);
-        buf.writeString(msg.curioId);
+        buf.writeVarInt(msg.version);
+        CurioTypeIds.write(buf, msg.curioId);
         buf.writeInt(msg.amount);
         buf.writeBoolean(msg.remove);
     }
 
     public static SPacketSyncSize decode(PacketBuffer buf) {
-        return new SPacketSyncSize(buf.readInt(), buf.readString(25), buf.readInt(), buf.readBoolean());
+        return new SPacketSyncSize(buf.readInt(), buf.readVarInt(), CurioTypeIds.read(buf), buf.readInt(), buf.readBoolean());
     }
 
     public static void handle(SPacketSyncSize msg, Supplier<NetworkEvent.Context> ctx) {
@@ -58,7 +63,7 @@ public class SPacketSyncSize {
         ctx.get().enqueueWork(() -> {
             Entity entity = Minecraft.getInstance().world.getEntityByID(msg.entityId);
 
-            if (entity instanceof EntityLivingBase) {
+            if (entity instanceof EntityLivingBase && msg.curioId != null) {
                 CuriosAPI.getCuriosHandler((EntityLivingBase) entity).ifPresent(handler -> {
 
                     if (msg.remove) {
@@ -66,6 +71,7 @@ public class SPacketSyncSize {
                     } else {
                         handler.addCurioSlot(msg.curioId, msg.amount);
                     }
+                    ClientCurioCache.update((EntityLivingBase) entity, handler, msg.version);
                 });
             }
         });
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network.server.sync;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+import top.theillusivec4.curios.client.ClientCurioCache;
+import top.theillusivec4.curios.common.network.CurioTypeIds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Sends the curio type identifiers indexed by ordinal so that other sync packets can refer to types by ordinal
+ * The table is set as soon as the packet is handled on the network thread so that the packets that follow it are
+ * decoded with it
+ * As it is sent once per connection, it also clears the {@link ClientCurioCache} of any previous connection
+ */
+public class SPacketSyncTypeIds {
+
+    private List<String> identifiers;
+
+    public SPacketSyncTypeIds(List<String> identifiers) {
+        this.identifiers = identifiers;
+    }
+
+    public static void encode(SPacketSyncTypeIds msg, PacketBuffer buf) {
+        buf.writeVarInt(msg.identifiers.size());
+
+        for (String identifier : msg.identifiers) {
+            buf.writeString(identifier);
+        }
+    }
+
+    public static SPacketSyncTypeIds decode(PacketBuffer buf) {
+        int size = buf.readVarInt();
+        List<String> identifiers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            identifiers.add(buf.readString(25));
+        }
+        return new SPacketSyncTypeIds(identifiers);
+    }
+
+    public static void handle(SPacketSyncTypeIds msg, Supplier<NetworkEvent.Context> ctx) {
+        CurioTypeIds.setClientTable(msg.identifiers);
+        ctx.get().enqueueWork(ClientCurioCache::clear);
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -22,45 +22,51 @@ package top.theillusivec4.curios.common.network.server.sync;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.item.ItemStack;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
 import top.theillusivec4.curios.api.CuriosAPI;
+import top.theillusivec4.curios.client.ClientCurioCache;
+import top.theillusivec4.curios.common.network.NetworkHandler;
+import top.theillusivec4.curios.common.network.client.CPacketRequestSync;
 
 import java.util.function.Supplier;
 
-public class SPacketSyncContents {
+/**
+ * Tells the client the current version of an entity's curio map
+ * The client reuses its cached map if it is at that version and otherwise requests a full sync
+ */
+public class SPacketSyncVersion {
 
     private int entityId;
-    private int slotId;
-    private String curioId;
-    private ItemStack stack;
+    private int version;
 
-    public SPacketSyncContents(int entityId, String curioId, int slotId, ItemStack stack) {
+    public SPacketSyncVersion(int entityId, int version) {
         this.entityId = entityId;
-        this.slotId = slotId;
-        this.stack = stack.copy();
-        this.curioId = curioId;
+        this.version = version;
     }
 
-    public static void encode(SPacketSyncContents msg, PacketBuffer buf) {
-        buf.writeInt(msg.entityId);
-        buf.writeString(msg.curioId);
-        buf.writeInt(msg.slotId);
-        buf.writeItemStack(msg.stack);
+    public static void encode(SPacketSyncVersion msg, PacketBuffer buf) {
+        buf.writeVarInt(msg.entityId);
+        buf.writeVarInt(msg.version);
     }
 
-    public static SPacketSyncContents decode(PacketBuffer buf) {
-        return new SPacketSyncContents(buf.readInt(), buf.readString(25), buf.readInt(), buf.readItemStack());
+    public static SPacketSyncVersion decode(PacketBuffer buf) {
+        return new SPacketSyncVersion(buf.readVarInt(), buf.readVarInt());
     }
 
-    public static void handle(SPacketSyncContents msg, Supplier<NetworkEvent.Context> ctx) {
+    public static void handle(SPacketSyncVersion msg, Supplier<NetworkEvent.Context> ctx) {
 
         ctx.get().enqueueWork(() -> {
             Entity entity = Minecraft.getInstance().world.getEntityByID(msg.entityId);
 
             if (entity instanceof EntityLivingBase) {
-                CuriosAPI.getCuriosHandler((EntityLivingBase)entity).ifPresent(handler -> handler.setStackInSlot(msg.curioId, msg.slotId, msg.stack));
+                EntityLivingBase livingBase = (EntityLivingBase) entity;
+                CuriosAPI.getCuriosHandler(livingBase).ifPresent(handler -> {
+
+                    if (!ClientCurioCache.restore(livingBase, handler, msg.version)) {
+                        NetworkHandler.INSTANCE.sendToServer(new CPacketRequestSync(msg.entityId));
+                    }
+                });
             }
         });
         ctx.get().setPacketHandled(true);
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.api.inventory;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CurioStackHandlerTest {
+
+    @BeforeClass
+    public static void setup() {
+        Bootstrap.register();
+    }
+
+    @Test
+    public void newSlotsAreDirty() {
+        CurioStackHandler stackHandler = new CurioStackHandler(3);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(stackHandler.isDirty(i));
+        }
+        clear(stackHandler);
+        assertFalse(stackHandler.hasDirtySlots());
+        assertEquals(-1, stackHandler.nextDirtySlot(0));
+    }
+
+    @Test
+    public void settingASlotOnlyMarksThatSlot() {
+        CurioStackHandler stackHandler = new CurioStackHandler(4);
+        clear(stackHandler);
+        int generation = stackHandler.getGeneration();
+        stackHandler.setStackInSlot(2, new ItemStack(Items.DIAMOND));
+
+        assertEquals(2, stackHandler.nextDirtySlot(0));
+        assertEquals(-1, stackHandler.nextDirtySlot(3));
+        assertNotEquals(generation, stackHandler.getGeneration());
+    }
+
+    @Test
+    public void shallowScanCatchesCountChanges() {
+        CurioStackHandler stackHandler = new CurioStackHandler(2);
+        ItemStack stack = new ItemStack(Items.DIAMOND);
+        stackHandler.setStackInSlot(0, stack);
+        process(stackHandler);
+
+        stack.setCount(5);
+        stackHandler.detectMutations(false);
+        assertTrue(stackHandler.isDirty(0));
+        assertFalse(stackHandler.isDirty(1));
+    }
+
+    @Test
+    public void deepScanCatchesTagChanges() {
+        CurioStackHandler stackHandler = new CurioStackHandler(1);
+        ItemStack stack = new ItemStack(Items.DIAMOND);
+        stack.getOrCreateTag().putInt("Charge", 1);
+        stackHandler.setStackInSlot(0, stack);
+        process(stackHandler);
+
+        stack.getOrCreateTag().putInt("Charge", 2);
+        stackHandler.detectMutations(false);
+        assertFalse(stackHandler.isDirty(0));
+
+        stackHandler.detectMutations(true);
+        assertTrue(stackHandler.isDirty(0));
+    }
+
+    @Test
+    public void resizingOnlyKeepsDirtySlotsInRange() {
+        CurioStackHandler stackHandler = new CurioStackHandler(2);
+        clear(stackHandler);
+        stackHandler.addSize(2);
+
+        assertEquals(2, stackHandler.nextDirtySlot(0));
+        assertEquals(3, stackHandler.nextDirtySlot(3));
+
+        stackHandler.removeSize(1);
+        assertEquals(2, stackHandler.nextDirtySlot(0));
+        assertEquals(-1, stackHandler.nextDirtySlot(3));
+    }
+
+    private static void clear(CurioStackHandler stackHandler) {
+
+        for (int i = stackHandler.nextDirtySlot(0); i >= 0; i = stackHandler.nextDirtySlot(i + 1)) {
+            stackHandler.clearDirty(i);
+        }
+    }
+
+    private static void process(CurioStackHandler stackHandler) {
+
+        for (int i = stackHandler.nextDirtySlot(0); i >= 0; i = stackHandler.nextDirtySlot(i + 1)) {
+            stackHandler.clearDirty(i);
+            stackHandler.setPreviousStackInSlot(i, stackHandler.getStackInSlot(i).copy());
+        }
+    }
+}
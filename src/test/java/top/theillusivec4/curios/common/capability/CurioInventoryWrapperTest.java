@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.capability;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.common.capability.CapCurioInventory.CurioInventoryWrapper;
+
+import java.util.ArrayList;
+import java.util.SortedMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CurioInventoryWrapperTest {
+
+    @BeforeClass
+    public static void setup() {
+        Bootstrap.register();
+    }
+
+    @Test
+    public void curioMapFollowsLayoutChanges() {
+        CurioInventoryWrapper handler = new CurioInventoryWrapper();
+        SortedMap<String, CurioStackHandler> source = Maps.newTreeMap();
+        CurioStackHandler ring = new CurioStackHandler(2);
+        CurioStackHandler belt = new CurioStackHandler(1);
+        source.put("ring", ring);
+        source.put("belt", belt);
+        handler.setCurioMap(source);
+
+        SortedMap<String, CurioStackHandler> map = handler.getCurioMap();
+        assertEquals(ImmutableList.of("belt", "ring"), new ArrayList<>(map.keySet()));
+        assertSame(ring, map.get("ring"));
+        assertEquals("belt", map.firstKey());
+        assertEquals("ring", map.lastKey());
+
+        CurioStackHandler necklace = new CurioStackHandler(1);
+        source.put("necklace", necklace);
+        source.remove("belt");
+        handler.setCurioMap(source);
+
+        assertSame(map, handler.getCurioMap());
+        assertEquals(ImmutableList.of("necklace", "ring"), new ArrayList<>(map.keySet()));
+        assertNull(map.get("belt"));
+        assertSame(necklace, map.get("necklace"));
+    }
+
+    @Test
+    public void curioMapRangesAreBounded() {
+        CurioInventoryWrapper handler = new CurioInventoryWrapper();
+        SortedMap<String, CurioStackHandler> source = Maps.newTreeMap();
+        source.put("back", new CurioStackHandler(1));
+        source.put("belt", new CurioStackHandler(1));
+        source.put("ring", new CurioStackHandler(2));
+        handler.setCurioMap(source);
+
+        SortedMap<String, CurioStackHandler> map = handler.getCurioMap();
+        assertEquals(ImmutableList.of("back", "belt"), new ArrayList<>(map.headMap("c").keySet()));
+        assertEquals(ImmutableList.of("ring"), new ArrayList<>(map.tailMap("c").keySet()));
+        assertEquals(ImmutableList.of("belt"), new ArrayList<>(map.subMap("belt", "ring").keySet()));
+        assertFalse(map.headMap("belt").containsKey("belt"));
+        assertEquals(1, map.headMap("belt").size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void curioMapIsReadOnly() {
+        CurioInventoryWrapper handler = new CurioInventoryWrapper();
+        handler.setCurioMap(Maps.newTreeMap());
+        handler.getCurioMap().put("ring", new CurioStackHandler(1));
+    }
+
+    @Test
+    public void itemIndexSeesChangesToAnyHandler() {
+        CurioInventoryWrapper handler = new CurioInventoryWrapper();
+        SortedMap<String, CurioStackHandler> source = Maps.newTreeMap();
+        CurioStackHandler ring = new CurioStackHandler(2);
+        CurioStackHandler belt = new CurioStackHandler(1);
+        source.put("ring", ring);
+        source.put("belt", belt);
+        handler.setCurioMap(source);
+        assertNull(handler.findFirst(Items.DIAMOND));
+
+        ring.setStackInSlot(1, new ItemStack(Items.DIAMOND));
+        assertEquals("ring", handler.findFirst(Items.DIAMOND).getIdentifier());
+
+        belt.setStackInSlot(0, new ItemStack(Items.DIAMOND));
+        assertEquals("belt", handler.findFirst(Items.DIAMOND).getIdentifier());
+        assertEquals(2, handler.findAll(Items.DIAMOND).size());
+    }
+
+    @Test
+    public void findFirstOnlySearchesGivenTypes() {
+        CurioInventoryWrapper handler = new CurioInventoryWrapper();
+        SortedMap<String, CurioStackHandler> source = Maps.newTreeMap();
+        CurioStackHandler ring = new CurioStackHandler(1);
+        CurioStackHandler belt = new CurioStackHandler(1);
+        ring.setStackInSlot(0, new ItemStack(Items.DIAMOND));
+        belt.setStackInSlot(0, new ItemStack(Items.DIAMOND));
+        source.put("ring", ring);
+        source.put("belt", belt);
+        handler.setCurioMap(source);
+
+        assertNotNull(handler.findFirst(Items.DIAMOND, ImmutableSet.of("ring")));
+        assertEquals("ring", handler.findFirst(Items.DIAMOND, ImmutableSet.of("ring")).getIdentifier());
+        assertNull(handler.findFirst(Items.DIAMOND, ImmutableSet.of("necklace")));
+    }
+}
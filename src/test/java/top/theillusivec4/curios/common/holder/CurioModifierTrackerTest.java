@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import net.minecraft.entity.ai.attributes.AttributeModifier;
+import org.junit.Test;
+import top.theillusivec4.curios.api.capability.ICurio;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CurioModifierTrackerTest {
+
+    private static final AttributeModifier LUCK = new AttributeModifier(UUID.randomUUID(), "Ring", 1.0D, 0);
+
+    private static final ICurio RING = new ICurio() {
+
+        @Override
+        public Multimap<String, AttributeModifier> getAttributeModifiers(String identifier) {
+            return ImmutableMultimap.of("generic.luck", LUCK);
+        }
+    };
+
+    @Test
+    public void equipQueuesModifiers() {
+        CurioStackHandler stackHandler = new CurioStackHandler(1);
+        CurioModifierTracker tracker = new CurioModifierTracker();
+        tracker.update("ring", stackHandler, 0, RING);
+
+        assertTrue(tracker.getAdded().containsEntry("generic.luck", LUCK));
+        assertTrue(tracker.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void unchangedModifiersAreNotQueuedAgain() {
+        CurioStackHandler stackHandler = new CurioStackHandler(1);
+        new CurioModifierTracker().update("ring", stackHandler, 0, RING);
+        CurioModifierTracker tracker = new CurioModifierTracker();
+        tracker.update("ring", stackHandler, 0, RING);
+
+        assertTrue(tracker.getAdded().isEmpty());
+        assertTrue(tracker.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void unequipAfterDimensionChangeRemovesModifiers() {
+        CurioStackHandler stackHandler = new CurioStackHandler(1);
+        new CurioModifierTracker().update("ring", stackHandler, 0, RING);
+
+        CurioModifierTracker newHolder = new CurioModifierTracker();
+        newHolder.update("ring", stackHandler, 0, null);
+
+        assertTrue(newHolder.getRemoved().containsEntry("generic.luck", LUCK));
+        assertTrue(newHolder.getAdded().isEmpty());
+        assertEquals(ImmutableMultimap.of(), stackHandler.getAppliedModifiers().get(0));
+    }
+
+    @Test
+    public void removedSlotsQueueTheirModifiers() {
+        CurioStackHandler stackHandler = new CurioStackHandler(2);
+        new CurioModifierTracker().update("ring", stackHandler, 1, RING);
+        stackHandler.removeSize(1);
+
+        CurioModifierTracker tracker = new CurioModifierTracker();
+        tracker.trim(stackHandler);
+
+        assertTrue(tracker.getRemoved().containsEntry("generic.luck", LUCK));
+        assertEquals(1, stackHandler.getAppliedModifiers().size());
+    }
+}
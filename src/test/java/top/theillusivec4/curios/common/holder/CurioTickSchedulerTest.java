@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import com.google.common.collect.Maps;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import top.theillusivec4.curios.api.capability.ICurio;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.common.capability.CapCurioInventory.CurioInventoryWrapper;
+
+import java.util.SortedMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class CurioTickSchedulerTest {
+
+    private static final ICurio CURIO = new ICurio() {};
+
+    private CurioStackHandler stackHandler;
+    private CurioInventoryWrapper handler;
+    private int ticks;
+
+    @BeforeClass
+    public static void setup() {
+        Bootstrap.register();
+    }
+
+    @Before
+    public void createHandler() {
+        stackHandler = new CurioStackHandler(1);
+        stackHandler.setStackInSlot(0, new ItemStack(Items.DIAMOND));
+        SortedMap<String, CurioStackHandler> map = Maps.newTreeMap();
+        map.put("ring", stackHandler);
+        handler = new CurioInventoryWrapper();
+        handler.setCurioMap(map);
+        ticks = 0;
+    }
+
+    @Test
+    public void tickNeverIsNotTicked() {
+        CurioTickScheduler scheduler = new CurioTickScheduler(handler, (identifier, stackHandler, slot) -> ticks++);
+        scheduler.schedule("ring", stackHandler, 0, stackHandler.getStackInSlot(0), CURIO, ICurio.TICK_NEVER, true);
+        run(scheduler, 10);
+
+        assertEquals(0, ticks);
+    }
+
+    @Test
+    public void tickRateIsKeptForInPlaceChanges() {
+        CurioTickScheduler scheduler = new CurioTickScheduler(handler, (identifier, stackHandler, slot) -> ticks++);
+        ItemStack stack = stackHandler.getStackInSlot(0);
+        scheduler.schedule("ring", stackHandler, 0, stack, CURIO, 4, true);
+        run(scheduler, 6);
+        assertEquals(2, ticks);
+
+        stack.getOrCreateTag().putInt("Charge", 1);
+        scheduler.schedule("ring", stackHandler, 0, stack, CURIO, 4, true);
+        run(scheduler, 4);
+        assertEquals(3, ticks);
+    }
+
+    @Test
+    public void removedHandlersAreNotTicked() {
+        CurioTickScheduler scheduler = new CurioTickScheduler(handler, (identifier, stackHandler, slot) -> ticks++);
+        scheduler.schedule("ring", stackHandler, 0, stackHandler.getStackInSlot(0), CURIO, 1, true);
+        run(scheduler, 2);
+        handler.setCurioMap(Maps.newTreeMap());
+        run(scheduler, 2);
+
+        assertEquals(2, ticks);
+    }
+
+    @Test
+    public void tickOnChangeIgnoresChangesFromItsOwnTick() {
+        CurioTickScheduler scheduler = new CurioTickScheduler(handler, (identifier, stackHandler, slot) -> {
+            ticks++;
+            stackHandler.getStackInSlot(slot).getOrCreateTag().putInt("Ticks", ticks);
+        });
+        ItemStack stack = stackHandler.getStackInSlot(0);
+        scheduler.schedule("ring", stackHandler, 0, stack, CURIO, ICurio.TICK_ON_CHANGE, true);
+        assertEquals(1, ticks);
+
+        for (int i = 0; i < 5; i++) {
+            scheduler.schedule("ring", stackHandler, 0, stack, CURIO, ICurio.TICK_ON_CHANGE, true);
+            run(scheduler, 1);
+        }
+        assertEquals(1, ticks);
+
+        stack.setCount(2);
+        scheduler.schedule("ring", stackHandler, 0, stack, CURIO, ICurio.TICK_ON_CHANGE, true);
+        assertEquals(2, ticks);
+
+        ItemStack replaced = new ItemStack(Items.EMERALD);
+        stackHandler.setStackInSlot(0, replaced);
+        scheduler.schedule("ring", stackHandler, 0, replaced, CURIO, ICurio.TICK_ON_CHANGE, true);
+        assertEquals(3, ticks);
+    }
+
+    @Test
+    public void tickOnChangeOnlyTicksWhenChanged() {
+        CurioTickScheduler scheduler = new CurioTickScheduler(handler, (identifier, stackHandler, slot) -> ticks++);
+        ItemStack stack = stackHandler.getStackInSlot(0);
+        scheduler.schedule("ring", stackHandler, 0, stack, CURIO, ICurio.TICK_ON_CHANGE, false);
+        run(scheduler, 5);
+
+        assertEquals(0, ticks);
+    }
+
+    private static void run(CurioTickScheduler scheduler, int ticks) {
+
+        for (int i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+}
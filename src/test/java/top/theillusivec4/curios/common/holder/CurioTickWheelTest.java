@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.item.ItemStack;
+import org.junit.Test;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CurioTickWheelTest {
+
+    @Test
+    public void entriesTickEveryPeriod() {
+        CurioTickWheel wheel = new CurioTickWheel();
+        CurioStackHandler stackHandler = new CurioStackHandler(3);
+        wheel.schedule("ring", stackHandler, 0, ItemStack.EMPTY, null, 1);
+        wheel.schedule("ring", stackHandler, 1, ItemStack.EMPTY, null, 3);
+        wheel.schedule("ring", stackHandler, 2, ItemStack.EMPTY, null, 100);
+        List<List<Integer>> ticked = run(wheel, 201);
+
+        assertEquals(201, ticked.get(0).size());
+        assertEquals(ImmutableList.of(1, 4, 7, 10), ticked.get(1).subList(0, 4));
+        assertEquals(67, ticked.get(1).size());
+        assertEquals(ImmutableList.of(1, 101, 201), ticked.get(2));
+    }
+
+    @Test
+    public void cancelledEntriesAreNotTicked() {
+        CurioTickWheel wheel = new CurioTickWheel();
+        CurioStackHandler stackHandler = new CurioStackHandler(2);
+        CurioTickWheel.Entry everyTick = wheel.schedule("ring", stackHandler, 0, ItemStack.EMPTY, null, 1);
+        CurioTickWheel.Entry periodic = wheel.schedule("ring", stackHandler, 1, ItemStack.EMPTY, null, 5);
+        wheel.cancel(everyTick);
+        wheel.cancel(periodic);
+        List<List<Integer>> ticked = run(wheel, 20);
+
+        assertEquals(ImmutableList.of(), ticked.get(0));
+        assertEquals(ImmutableList.of(), ticked.get(1));
+    }
+
+    @Test
+    public void entriesCanCancelThemselves() {
+        CurioTickWheel wheel = new CurioTickWheel();
+        CurioStackHandler stackHandler = new CurioStackHandler(1);
+        wheel.schedule("ring", stackHandler, 0, ItemStack.EMPTY, null, 2);
+        List<Integer> ticked = new ArrayList<>();
+
+        for (int tick = 1; tick <= 10; tick++) {
+            int current = tick;
+            wheel.tick(entry -> {
+                ticked.add(current);
+
+                if (current >= 3) {
+                    wheel.cancel(entry);
+                }
+            });
+        }
+        assertEquals(ImmutableList.of(1, 3), ticked);
+    }
+
+    private static List<List<Integer>> run(CurioTickWheel wheel, int ticks) {
+        List<List<Integer>> ticked = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            ticked.add(new ArrayList<>());
+        }
+
+        for (int tick = 1; tick <= ticks; tick++) {
+            int current = tick;
+            wheel.tick(entry -> ticked.get(entry.slot).add(current));
+        }
+        return ticked;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.holder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SyncLimiterTest {
+
+    @Test
+    public void slotsSyncOncePerInterval() {
+        SyncLimiter limiter = new SyncLimiter("ring", () -> 5);
+        assertTrue(limiter.canSync(3, 0));
+        limiter.synced(3, 0);
+
+        assertFalse(limiter.canSync(3, 4));
+        assertTrue(limiter.canSync(3, 5));
+        assertTrue(limiter.canSync(2, 1));
+    }
+
+    @Test
+    public void heldChangesKeepTheirVisibility() {
+        SyncLimiter limiter = new SyncLimiter("ring", () -> 5);
+        limiter.synced(0, 0);
+        limiter.hold(0, false, false);
+        limiter.hold(0, true, true);
+        limiter.hold(2, true, false);
+
+        assertTrue(limiter.hasHeld());
+        assertTrue(limiter.isHeld(0));
+        assertTrue(limiter.isHeldForTrackers(0));
+        assertTrue(limiter.isHeldVisible(0));
+        assertFalse(limiter.isHeldVisible(2));
+        assertEquals(0, limiter.nextHeld(0));
+        assertEquals(2, limiter.nextHeld(1));
+        assertEquals(-1, limiter.nextHeld(3));
+    }
+
+    @Test
+    public void syncClearsHeldChanges() {
+        SyncLimiter limiter = new SyncLimiter("ring", () -> 5);
+        limiter.hold(1, true, true);
+        limiter.synced(1, 10);
+
+        assertFalse(limiter.hasHeld());
+        assertFalse(limiter.isHeldForTrackers(1));
+        assertFalse(limiter.isHeldVisible(1));
+        assertFalse(limiter.canSync(1, 14));
+    }
+
+    @Test
+    public void intervalIsReadOnEveryCheck() {
+        int[] interval = {20};
+        SyncLimiter limiter = new SyncLimiter("ring", () -> interval[0]);
+        limiter.synced(0, 0);
+        assertFalse(limiter.canSync(0, 10));
+
+        interval[0] = 10;
+        assertTrue(limiter.canSync(0, 10));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network;
+
+import net.minecraft.network.EnumPacketDirection;
+import net.minecraft.network.NetworkManager;
+import org.junit.After;
+import org.junit.Test;
+import top.theillusivec4.curios.common.network.CurioPacketLimiter.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CurioPacketLimiterTest {
+
+    @After
+    public void clear() {
+        CurioPacketLimiter.clear();
+    }
+
+    @Test
+    public void deferredMessageIsCountedOnce() {
+        NetworkManager manager = new NetworkManager(EnumPacketDirection.SERVERBOUND);
+        List<Integer> handled = new ArrayList<>();
+        long accepted = Type.OPEN_CURIOS.getAccepted();
+        long throttled = Type.OPEN_CURIOS.getThrottled();
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(CurioPacketLimiter.acquireOrDefer(manager, Type.OPEN_CURIOS, i, () -> {}, 0));
+        }
+        assertFalse(CurioPacketLimiter.acquireOrDefer(manager, Type.OPEN_CURIOS, 4, () -> handled.add(4), 0));
+        assertEquals(accepted + 4, Type.OPEN_CURIOS.getAccepted());
+        assertEquals(throttled, Type.OPEN_CURIOS.getThrottled());
+
+        CurioPacketLimiter.tick(1000);
+        assertEquals(1, handled.size());
+        assertEquals(accepted + 5, Type.OPEN_CURIOS.getAccepted());
+        assertEquals(throttled, Type.OPEN_CURIOS.getThrottled());
+    }
+
+    @Test
+    public void replacedMessageIsCountedAsThrottled() {
+        NetworkManager manager = new NetworkManager(EnumPacketDirection.SERVERBOUND);
+        List<Integer> handled = new ArrayList<>();
+        long accepted = Type.SCROLL.getAccepted();
+        long throttled = Type.SCROLL.getThrottled();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(CurioPacketLimiter.acquireOrDefer(manager, Type.SCROLL, 0, () -> {}, 0));
+        }
+        CurioPacketLimiter.acquireOrDefer(manager, Type.SCROLL, 0, () -> handled.add(1), 0);
+        CurioPacketLimiter.acquireOrDefer(manager, Type.SCROLL, 0, () -> handled.add(2), 0);
+        assertEquals(throttled + 1, Type.SCROLL.getThrottled());
+
+        CurioPacketLimiter.tick(1000);
+        assertEquals(1, handled.size());
+        assertEquals(2, (int) handled.get(0));
+        assertEquals(accepted + 21, Type.SCROLL.getAccepted());
+    }
+
+    @Test
+    public void deferredMessagesWaitForTokens() {
+        NetworkManager manager = new NetworkManager(EnumPacketDirection.SERVERBOUND);
+        List<Integer> handled = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            CurioPacketLimiter.acquireOrDefer(manager, Type.OPEN_VANILLA, i, () -> {}, 0);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            int key = i;
+            CurioPacketLimiter.acquireOrDefer(manager, Type.OPEN_VANILLA, 10 + i, () -> handled.add(key), 0);
+        }
+        CurioPacketLimiter.tick(0);
+        assertTrue(handled.isEmpty());
+
+        CurioPacketLimiter.tick(1000);
+        assertEquals(2, handled.size());
+        assertEquals(0, (int) handled.get(0));
+        assertEquals(1, (int) handled.get(1));
+
+        CurioPacketLimiter.tick(1500);
+        assertEquals(3, handled.size());
+    }
+}
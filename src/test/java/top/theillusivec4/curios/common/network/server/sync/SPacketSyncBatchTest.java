@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network.server.sync;
+
+import com.google.common.collect.Maps;
+import io.netty.buffer.Unpooled;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.common.capability.CapCurioInventory.CurioInventoryWrapper;
+
+import java.util.SortedMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SPacketSyncBatchTest {
+
+    private CurioStackHandler rings;
+    private CurioInventoryWrapper handler;
+
+    @BeforeClass
+    public static void setup() {
+        Bootstrap.register();
+    }
+
+    @Before
+    public void createHandler() {
+        rings = new CurioStackHandler(2);
+        SortedMap<String, CurioStackHandler> map = Maps.newTreeMap();
+        map.put("ring", rings);
+        handler = new CurioInventoryWrapper();
+        handler.setCurioMap(map);
+    }
+
+    @Test
+    public void countDeltaPatchesInPlace() {
+        ItemStack prevStack = new ItemStack(Items.DIAMOND);
+        ItemStack client = prevStack.copy();
+        rings.setStackInSlot(0, client);
+        clearDirty();
+        ItemStack stack = prevStack.copy();
+        stack.setCount(5);
+
+        apply(new SPacketSyncBatch.Builder(1).addChange("ring", 0, prevStack, stack, null, false));
+        assertSame(client, rings.getStackInSlot(0));
+        assertEquals(5, client.getCount());
+        assertTrue(rings.isDirty(0));
+    }
+
+    @Test
+    public void damageDeltaPatchesInPlace() {
+        ItemStack prevStack = new ItemStack(Items.DIAMOND_SWORD);
+        ItemStack client = prevStack.copy();
+        rings.setStackInSlot(0, client);
+        ItemStack stack = prevStack.copy();
+        stack.setDamage(12);
+
+        apply(new SPacketSyncBatch.Builder(1).addChange("ring", 0, prevStack, stack, null, true));
+        assertSame(client, rings.getStackInSlot(0));
+        assertEquals(12, client.getDamage());
+    }
+
+    @Test
+    public void tagDeltaSetsAndRemovesKeys() {
+        ItemStack prevStack = new ItemStack(Items.DIAMOND);
+        prevStack.getOrCreateTag().putInt("Charge", 1);
+        prevStack.getOrCreateTag().putString("Owner", "Steve");
+        ItemStack client = prevStack.copy();
+        rings.setStackInSlot(0, client);
+
+        ItemStack charged = prevStack.copy();
+        charged.getOrCreateTag().putInt("Charge", 2);
+        apply(new SPacketSyncBatch.Builder(1).addChange("ring", 0, prevStack, charged, null, true));
+        assertSame(client, rings.getStackInSlot(0));
+        assertTrue(ItemStack.areItemStacksEqual(charged, client));
+
+        ItemStack removed = charged.copy();
+        removed.getTag().remove("Owner");
+        apply(new SPacketSyncBatch.Builder(1).addChange("ring", 0, charged, removed, null, true));
+        assertSame(client, rings.getStackInSlot(0));
+        assertFalse(client.getTag().contains("Owner"));
+        assertTrue(ItemStack.areItemStacksEqual(removed, client));
+    }
+
+    @Test
+    public void tagChangesWithoutTagDeltasSendTheFullStack() {
+        ItemStack prevStack = new ItemStack(Items.DIAMOND_SWORD);
+        ItemStack client = prevStack.copy();
+        rings.setStackInSlot(0, client);
+        ItemStack stack = prevStack.copy();
+        stack.setDamage(12);
+
+        apply(new SPacketSyncBatch.Builder(1).addChange("ring", 0, prevStack, stack, null, false));
+        assertNotSame(client, rings.getStackInSlot(0));
+        assertTrue(ItemStack.areItemStacksEqual(stack, rings.getStackInSlot(0)));
+    }
+
+    @Test
+    public void deltasAreSkippedForEmptySlots() {
+        ItemStack prevStack = new ItemStack(Items.DIAMOND);
+        ItemStack stack = prevStack.copy();
+        stack.setCount(3);
+
+        apply(new SPacketSyncBatch.Builder(1).addChange("ring", 1, prevStack, stack, null, false));
+        assertTrue(rings.getStackInSlot(1).isEmpty());
+    }
+
+    @Test
+    public void ownerChangesAreAppended() {
+        SPacketSyncBatch.Builder trackerChanges = new SPacketSyncBatch.Builder(1)
+                .add("ring", 0, new ItemStack(Items.DIAMOND), null);
+        SPacketSyncBatch.Builder ownerChanges = new SPacketSyncBatch.Builder(1)
+                .add("ring", 1, new ItemStack(Items.EMERALD), null);
+
+        SPacketSyncBatch.apply(roundTrip(trackerChanges.buildWith(7, ownerChanges)), handler);
+        assertSame(Items.DIAMOND, rings.getStackInSlot(0).getItem());
+        assertSame(Items.EMERALD, rings.getStackInSlot(1).getItem());
+
+        createHandler();
+        SPacketSyncBatch.apply(roundTrip(trackerChanges.build(7)), handler);
+        assertSame(Items.DIAMOND, rings.getStackInSlot(0).getItem());
+        assertTrue(rings.getStackInSlot(1).isEmpty());
+    }
+
+    private void apply(SPacketSyncBatch.Builder builder) {
+        SPacketSyncBatch.apply(roundTrip(builder.build(1)), handler);
+    }
+
+    private void clearDirty() {
+
+        for (int i = rings.nextDirtySlot(0); i >= 0; i = rings.nextDirtySlot(i + 1)) {
+            rings.clearDirty(i);
+        }
+    }
+
+    private static SPacketSyncBatch roundTrip(SPacketSyncBatch msg) {
+        PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+        SPacketSyncBatch.encode(msg, buf);
+        return SPacketSyncBatch.decode(buf);
+    }
+}
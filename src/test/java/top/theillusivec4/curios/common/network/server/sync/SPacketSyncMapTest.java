@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2018-2019  C4
+ *
+ * This file is part of Curios, a mod made for Minecraft.
+ *
+ * Curios is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Curios is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Curios.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package top.theillusivec4.curios.common.network.server.sync;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import io.netty.buffer.Unpooled;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import top.theillusivec4.curios.api.inventory.CurioStackHandler;
+import top.theillusivec4.curios.common.capability.CapCurioInventory.CurioInventoryWrapper;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SPacketSyncMapTest {
+
+    @BeforeClass
+    public static void setup() {
+        Bootstrap.register();
+    }
+
+    @Test
+    public void multiChunkSyncReplacesMapOnLastChunk() {
+        SortedMap<String, CurioStackHandler> source = Maps.newTreeMap();
+        CurioStackHandler rings = new CurioStackHandler(64);
+
+        for (int i = 0; i < rings.getSlots(); i += 2) {
+            ItemStack stack = new ItemStack(Items.DIAMOND, i % 7 + 1);
+            stack.getOrCreateTag().putString("Padding", Strings.repeat("x", 1024));
+            rings.setStackInSlot(i, stack);
+        }
+        CurioStackHandler necklace = new CurioStackHandler(1);
+        necklace.setHidden(true);
+        necklace.setStackInSlot(0, new ItemStack(Items.EMERALD));
+        source.put("ring", rings);
+        source.put("necklace", necklace);
+        source.put("belt", new CurioStackHandler(2));
+
+        List<SPacketSyncMap> chunks = SPacketSyncMap.split(7, 3, source);
+        assertTrue(chunks.size() > 1);
+
+        CurioInventoryWrapper handler = new CurioInventoryWrapper();
+        SortedMap<String, CurioStackHandler> received = null;
+
+        for (int i = 0; i < chunks.size(); i++) {
+            PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+            SPacketSyncMap.encode(chunks.get(i), buf);
+            received = SPacketSyncMap.receive(SPacketSyncMap.decode(buf));
+
+            if (i < chunks.size() - 1) {
+                assertNull(received);
+            }
+        }
+        assertNotNull(received);
+        handler.setCurioMap(received);
+
+        SortedMap<String, CurioStackHandler> map = handler.getCurioMap();
+        assertEquals(source.keySet(), map.keySet());
+
+        for (String identifier : source.keySet()) {
+            CurioStackHandler expected = source.get(identifier);
+            CurioStackHandler actual = map.get(identifier);
+            assertEquals(expected.getSlots(), actual.getSlots());
+            assertEquals(expected.isHidden(), actual.isHidden());
+
+            for (int i = 0; i < expected.getSlots(); i++) {
+                assertTrue(ItemStack.areItemStacksEqual(expected.getStackInSlot(i), actual.getStackInSlot(i)));
+            }
+        }
+    }
+
+    @Test
+    public void clearedChunksAreNotCompleted() {
+        SortedMap<String, CurioStackHandler> source = Maps.newTreeMap();
+        CurioStackHandler rings = new CurioStackHandler(64);
+
+        for (int i = 0; i < rings.getSlots(); i++) {
+            ItemStack stack = new ItemStack(Items.DIAMOND);
+            stack.getOrCreateTag().putString("Padding", Strings.repeat("x", 1024));
+            rings.setStackInSlot(i, stack);
+        }
+        source.put("ring", rings);
+
+        List<SPacketSyncMap> chunks = SPacketSyncMap.split(9, 1, source);
+        assertTrue(chunks.size() > 1);
+        assertNull(SPacketSyncMap.receive(roundTrip(chunks.get(0))));
+        SPacketSyncMap.clearReceiving();
+
+        for (int i = 1; i < chunks.size(); i++) {
+            assertNull(SPacketSyncMap.receive(roundTrip(chunks.get(i))));
+        }
+    }
+
+    private static SPacketSyncMap roundTrip(SPacketSyncMap msg) {
+        PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+        SPacketSyncMap.encode(msg, buf);
+        return SPacketSyncMap.decode(buf);
+    }
+}